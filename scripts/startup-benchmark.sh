@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Compare le démarrage du jar standard et du jar AOT + AppCDS (profil Maven fast-startup).
+#
+#   mvn -Pfast-startup -DskipTests package
+#   scripts/startup-benchmark.sh [runs]
+#
+# Mesure, pour chaque mode : temps entre le lancement de la JVM et la première réponse 200
+# sur l'URL de sonde, puis RSS du processus à ce moment. La base configurée doit être joignable.
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-8080}"
+PROBE_URL="${PROBE_URL:-http://localhost:${PORT}/api/futures/search?size=1}"
+TARGET="$(cd "$(dirname "$0")/.." && pwd)/target"
+JAR="$(ls "$TARGET"/*.jar | grep -v plain | head -n 1)"
+EXTRACTED_JAR="$TARGET/application/$(basename "$JAR")"
+CDS_ARCHIVE="$TARGET/application/application.jsa"
+
+if [[ ! -f "$EXTRACTED_JAR" || ! -f "$CDS_ARCHIVE" ]]; then
+    echo "Archive CDS absente : lancer d'abord mvn -Pfast-startup package" >&2
+    exit 1
+fi
+
+now_ms() { date +%s%3N; }
+
+# run <libellé> <arguments java...>
+run() {
+    local label="$1"; shift
+    local start pid elapsed rss
+    start=$(now_ms)
+    java -Dserver.port="$PORT" "$@" > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$PROBE_URL"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "$label : le processus s'est arrêté avant de répondre" >&2
+            return 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    rss=$(awk '/VmRSS/ { print int($2 / 1024) }' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    printf '%-10s %8d ms %8d Mo\n' "$label" "$elapsed" "$rss"
+}
+
+printf '%-10s %11s %11s\n' "mode" "1re requête" "RSS"
+for ((i = 1; i <= RUNS; i++)); do
+    run "standard" -jar "$JAR"
+    run "aot+cds" -XX:SharedArchiveFile="$CDS_ARCHIVE" -Dspring.aot.enabled=true -jar "$EXTRACTED_JAR"
+done
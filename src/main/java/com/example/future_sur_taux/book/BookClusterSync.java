@@ -0,0 +1,114 @@
+package com.example.future_sur_taux.book;
+
+import com.example.future_sur_taux.pricing.PricingWriteBehind;
+import com.example.future_sur_taux.quote.QuoteReplicaCache;
+import com.example.future_sur_taux.tenant.TenantContext;
+import com.example.future_sur_taux.tenant.TenantRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cohérence des instantanés du carnet entre les instances du cluster.
+ *
+ * Chaque instance ne publie dans son instantané que ses propres écritures. Les tenants modifiés
+ * localement sont signalés aux autres instances par un NOTIFY (payload « tenant instance »),
+ * une fois les prix correspondants écrits par le write-behind : les pairs relisent la base.
+ * Les notifications arrivent sur la connexion LISTEN de {@link QuoteReplicaCache} ; les
+ * reconstructions sont regroupées par tenant à chaque cycle. Une reconstruction complète
+ * périodique rattrape les notifications perdues (déconnexion, redémarrage d'un pair).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "quotes.cluster.enabled", havingValue = "true")
+public class BookClusterSync {
+
+    public static final String CHANNEL = "book_changed";
+
+    private final BookSnapshotService bookSnapshotService;
+    private final PricingWriteBehind pricingWriteBehind;
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantRegistry tenantRegistry;
+    private final long writeBehindWaitMillis;
+
+    // Identifie les notifications émises par cette instance
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Set<String> toNotify = ConcurrentHashMap.newKeySet();
+    private final Set<String> stale = ConcurrentHashMap.newKeySet();
+
+    public BookClusterSync(BookSnapshotService bookSnapshotService,
+                           PricingWriteBehind pricingWriteBehind,
+                           JdbcTemplate jdbcTemplate,
+                           TenantRegistry tenantRegistry,
+                           QuoteReplicaCache quoteReplicaCache,
+                           @Value("${book.snapshot.cluster-write-behind-wait-ms:200}") long writeBehindWaitMillis) {
+        this.bookSnapshotService = bookSnapshotService;
+        this.pricingWriteBehind = pricingWriteBehind;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tenantRegistry = tenantRegistry;
+        this.writeBehindWaitMillis = writeBehindWaitMillis;
+        quoteReplicaCache.listen(CHANNEL, this::onNotification);
+    }
+
+    /**
+     * Signale les changements locaux puis reconstruit les tenants modifiés par les autres instances.
+     */
+    @Scheduled(fixedDelayString = "${book.snapshot.cluster-sync-interval-ms:1000}")
+    public void sync() {
+        toNotify.addAll(bookSnapshotService.drainChangedTenants());
+        for (String tenant : drain(toNotify)) {
+            // Les pairs relisent la base : les prix publiés localement doivent y être. Sinon, au cycle suivant.
+            if (!pricingWriteBehind.awaitFlushed(tenant, writeBehindWaitMillis)) {
+                toNotify.add(tenant);
+                continue;
+            }
+            jdbcTemplate.query("select pg_notify(?, ?)", (RowCallbackHandler) rs -> { },
+                    CHANNEL, tenant + " " + instanceId);
+        }
+        for (String tenant : drain(stale)) {
+            if (!tenantRegistry.isKnown(tenant)) continue;
+            try {
+                TenantContext.runAs(tenant, bookSnapshotService::rebuild);
+            } catch (RuntimeException e) {
+                log.error("Reconstruction de l'instantané impossible (tenant {}), nouvel essai au prochain cycle",
+                        tenant, e);
+                stale.add(tenant);
+            }
+        }
+    }
+
+    /**
+     * Filet de sécurité : reconstruction complète, quelles que soient les notifications reçues.
+     */
+    @Scheduled(fixedDelayString = "${book.snapshot.cluster-rebuild-interval-ms:60000}",
+            initialDelayString = "${book.snapshot.cluster-rebuild-interval-ms:60000}")
+    public void rebuildAll() {
+        bookSnapshotService.rebuildAll();
+    }
+
+    private void onNotification(String payload) {
+        int space = payload.indexOf(' ');
+        if (space < 0) return;
+        // Ses propres changements sont déjà dans l'instantané local
+        if (!instanceId.equals(payload.substring(space + 1))) stale.add(payload.substring(0, space));
+    }
+
+    private static Set<String> drain(Set<String> source) {
+        Set<String> drained = new HashSet<>();
+        for (Iterator<String> it = source.iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+}
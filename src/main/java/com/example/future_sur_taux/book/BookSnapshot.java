@@ -0,0 +1,102 @@
+package com.example.future_sur_taux.book;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Version immuable du carnet : futures triés par id dans deux tableaux parallèles (ids, lignes).
+ *
+ * Une nouvelle version est produite par copie (withUpserts / without) ; les lecteurs gardent la
+ * référence obtenue et voient un carnet cohérent, sans verrou, même si une écriture est en cours.
+ */
+public final class BookSnapshot {
+
+    public static final String VERSION_HEADER = "X-Book-Version";
+
+    static final BookSnapshot EMPTY = new BookSnapshot(0, new long[0], new LiveFuture[0]);
+
+    private final long version;
+    private final Instant publishedAt;
+    private final long[] ids;
+    private final LiveFuture[] futures;
+
+    private BookSnapshot(long version, long[] ids, LiveFuture[] futures) {
+        this.version = version;
+        this.publishedAt = Instant.now();
+        this.ids = ids;
+        this.futures = futures;
+    }
+
+    static BookSnapshot of(long version, Collection<LiveFuture> rows) {
+        LiveFuture[] sorted = rows.toArray(LiveFuture[]::new);
+        Arrays.sort(sorted, Comparator.comparingLong(LiveFuture::id));
+        return new BookSnapshot(version, idsOf(sorted), sorted);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+
+    public int size() {
+        return futures.length;
+    }
+
+    public List<LiveFuture> futures() {
+        return Collections.unmodifiableList(Arrays.asList(futures));
+    }
+
+    public LiveFuture get(long id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index >= 0 ? futures[index] : null;
+    }
+
+    /**
+     * Nouvelle version où les lignes données remplacent (ou complètent) celles de même id : fusion O(n + m).
+     */
+    BookSnapshot withUpserts(Collection<LiveFuture> changed) {
+        LiveFuture[] updates = changed.toArray(LiveFuture[]::new);
+        Arrays.sort(updates, Comparator.comparingLong(LiveFuture::id));
+
+        List<LiveFuture> merged = new ArrayList<>(futures.length + updates.length);
+        int i = 0;
+        int j = 0;
+        while (i < futures.length || j < updates.length) {
+            if (j == updates.length || (i < futures.length && ids[i] < updates[j].id())) {
+                merged.add(futures[i++]);
+            } else {
+                // Doublons dans le lot : le dernier l'emporte
+                LiveFuture update = updates[j++];
+                while (j < updates.length && updates[j].id() == update.id()) update = updates[j++];
+                if (i < futures.length && ids[i] == update.id()) i++;
+                merged.add(update);
+            }
+        }
+        LiveFuture[] rows = merged.toArray(LiveFuture[]::new);
+        return new BookSnapshot(version + 1, idsOf(rows), rows);
+    }
+
+    BookSnapshot without(Collection<Long> removedIds) {
+        long[] removed = removedIds.stream().mapToLong(Long::longValue).sorted().toArray();
+        List<LiveFuture> kept = new ArrayList<>(futures.length);
+        for (int i = 0; i < futures.length; i++) {
+            if (Arrays.binarySearch(removed, ids[i]) < 0) kept.add(futures[i]);
+        }
+        LiveFuture[] rows = kept.toArray(LiveFuture[]::new);
+        return new BookSnapshot(version + 1, idsOf(rows), rows);
+    }
+
+    private static long[] idsOf(LiveFuture[] rows) {
+        long[] result = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) result[i] = rows[i].id();
+        return result;
+    }
+}
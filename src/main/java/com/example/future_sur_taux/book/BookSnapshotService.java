@@ -0,0 +1,129 @@
+package com.example.future_sur_taux.book;
+
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.pricing.PricingWriteBehind;
+import com.example.future_sur_taux.repository.FutureRepository;
+import com.example.future_sur_taux.tenant.TenantContext;
+import com.example.future_sur_taux.tenant.TenantRegistry;
+import com.example.future_sur_taux.tenant.TenantScoped;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Instantané en mémoire du carnet vivant, un par tenant.
+ *
+ * Les lecteurs prennent la version courante sans verrou ; les écrivains (création, revalorisation,
+ * archivage) publient une nouvelle version par lot, sous un verrou (par tenant) qui les sérialise
+ * entre eux.
+ * Une reconstruction complète depuis la base a lieu au démarrage et chaque nuit, pour reprendre
+ * les écritures faites hors de l'application. Elle attend d'abord que le write-behind ait écrit
+ * les prix déjà publiés dans l'instantané, sans quoi elle les remplacerait par l'ancienne valeur.
+ *
+ * Les tenants modifiés localement sont relevés ({@link #drainChangedTenants}) : en mode cluster,
+ * {@link BookClusterSync} les signale aux autres instances, qui reconstruisent leur instantané.
+ */
+@Slf4j
+@Service
+public class BookSnapshotService {
+
+    private final FutureRepository futureRepository;
+    private final TenantRegistry tenantRegistry;
+    private final PricingWriteBehind pricingWriteBehind;
+    private final long writeBehindWaitMillis;
+
+    public BookSnapshotService(FutureRepository futureRepository,
+                               TenantRegistry tenantRegistry,
+                               PricingWriteBehind pricingWriteBehind,
+                               @Value("${book.snapshot.write-behind-wait-ms:30000}") long writeBehindWaitMillis) {
+        this.futureRepository = futureRepository;
+        this.tenantRegistry = tenantRegistry;
+        this.pricingWriteBehind = pricingWriteBehind;
+        this.writeBehindWaitMillis = writeBehindWaitMillis;
+    }
+
+    private final TenantScoped<AtomicReference<BookSnapshot>> snapshots =
+            new TenantScoped<>(() -> new AtomicReference<>(BookSnapshot.EMPTY));
+    private final Set<String> changedTenants = ConcurrentHashMap.newKeySet();
+
+    public BookSnapshot current() {
+        BookSnapshot snapshot = snapshots.get().get();
+        // Requête arrivée avant le chargement initial
+        return snapshot.getVersion() > 0 ? snapshot : rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${book.snapshot.rebuild-cron:0 0 2 * * *}")
+    public void rebuildAll() {
+        tenantRegistry.forEachTenant(this::rebuild);
+    }
+
+    /**
+     * Reconstruit l'instantané du tenant courant.
+     */
+    public BookSnapshot rebuild() {
+        // Hors verrou : les écrivains continuent de publier pendant l'attente
+        if (!pricingWriteBehind.awaitFlushed(TenantContext.current(), writeBehindWaitMillis)) {
+            log.warn("Write-behind non vidé après {} ms : l'instantané peut reprendre des prix antérieurs",
+                    writeBehindWaitMillis);
+        }
+        AtomicReference<BookSnapshot> current = snapshots.get();
+        synchronized (current) {
+            long start = System.currentTimeMillis();
+            BookSnapshot previous = current.get();
+            BookSnapshot next = BookSnapshot.of(previous.getVersion() + 1,
+                    futureRepository.findLiveWithUnderlying(LocalDate.now()).stream().map(LiveFuture::of).toList());
+            current.set(next);
+            log.info("Instantané du carnet v{} : {} futures en {} ms", next.getVersion(), next.size(),
+                    System.currentTimeMillis() - start);
+            return next;
+        }
+    }
+
+    /**
+     * Publie les futures créés ou revalorisés (sous-jacent chargé).
+     */
+    public void publishUpserts(Collection<Future> futures) {
+        if (futures.isEmpty()) return;
+        AtomicReference<BookSnapshot> current = snapshots.get();
+        synchronized (current) {
+            // Avant le chargement initial : la reconstruction lira ces lignes en base
+            if (current.get().getVersion() == 0) return;
+            current.set(current.get().withUpserts(futures.stream().map(LiveFuture::of).toList()));
+        }
+        changedTenants.add(TenantContext.current());
+    }
+
+    public void publishRemovals(Collection<Long> futureIds) {
+        if (futureIds.isEmpty()) return;
+        AtomicReference<BookSnapshot> current = snapshots.get();
+        synchronized (current) {
+            if (current.get().getVersion() == 0) return;
+            current.set(current.get().without(futureIds));
+        }
+        changedTenants.add(TenantContext.current());
+    }
+
+    /**
+     * Tenants dont le carnet a changé localement depuis le dernier appel.
+     */
+    public Set<String> drainChangedTenants() {
+        Set<String> drained = new HashSet<>();
+        for (Iterator<String> it = changedTenants.iterator(); it.hasNext(); ) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.future_sur_taux.book;
+
+/**
+ * Données lues dans une version donnée du carnet (renvoyée dans l'en-tête X-Book-Version).
+ */
+public record BookView<T>(long version, T data) {
+}
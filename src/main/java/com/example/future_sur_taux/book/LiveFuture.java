@@ -0,0 +1,65 @@
+package com.example.future_sur_taux.book;
+
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.domain.Underlying;
+import com.example.future_sur_taux.domain.enumeration.DepositType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Copie immuable d'un future vivant et de ses champs calculés, détachée de l'entité JPA.
+ */
+public record LiveFuture(
+        long id,
+        String symbol,
+        String description,
+        String isin,
+        String parentTicker,
+        String segment,
+        LocalDate firstTradingDate,
+        LocalDate lastTradingDate,
+        LocalDate maturityDate,
+        LocalDate deletionDate,
+        Double tickSize,
+        Double tickValue,
+        String tradingCurrency,
+        Integer lotSize,
+        Integer contractMultiplier,
+        BigDecimal percentageMargin,
+        BigDecimal theoreticalPrice,
+        BigDecimal contractValue,
+        BigDecimal initialMarginAmount,
+        Boolean instrumentStatus,
+        boolean flagForDelete,
+        DepositType depositType,
+        Long underlyingId,
+        String underlyingIdentifier,
+        String underlyingType) {
+
+    /**
+     * Le sous-jacent doit être chargé (fetch join ou entité déjà initialisée).
+     */
+    public static LiveFuture of(Future f) {
+        Underlying u = f.getUnderlying();
+        return new LiveFuture(
+                f.getId(), f.getSymbol(), f.getDescription(), f.getIsin(), f.getParentTicker(), f.getSegment(),
+                f.getFirstTradingDate(), f.getLastTradingDate(), f.getMaturityDate(), f.getDeletionDate(),
+                f.getTickSize(), f.getTickValue(), f.getTradingCurrency(), f.getLotSize(), f.getContractMultiplier(),
+                f.getPercentageMargin(), f.getTheoreticalPrice(), f.getContractValue(), f.getInitialMarginAmount(),
+                f.getInstrumentStatus(), Boolean.TRUE.equals(f.getFlagForDelete()), f.getDepositType(),
+                u != null ? u.getId() : null,
+                u != null ? u.getIdentifier() : null,
+                u != null && u.getUnderlyingType() != null ? u.getUnderlyingType().name() : null);
+    }
+
+    /**
+     * Même prédicat que FutureRepository.findLive : l'instantané peut contenir des contrats
+     * échus depuis sa construction, en attendant l'archivage.
+     */
+    public boolean isLive(LocalDate today) {
+        return !flagForDelete
+                && (lastTradingDate == null || !lastTradingDate.isBefore(today))
+                && (deletionDate == null || deletionDate.isAfter(today));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.future_sur_taux.coalescing;
+
+import com.example.future_sur_taux.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Regroupement des appels concurrents identiques (« single-flight »).
+ *
+ * Pour une clé donnée, un seul appelant exécute le calcul ; ceux qui arrivent pendant ce temps
+ * attendent et reçoivent le même résultat. Un résultat terminé reste réutilisable pendant la
+ * fenêtre reuseWindow (zéro : seuls les appels simultanés sont regroupés). Les échecs ne sont pas
+ * conservés : l'appel suivant relance le calcul.
+ *
+ * Les appels sont regroupés au sein du tenant courant ({@link TenantContext}) seulement : deux
+ * desks ne partagent ni calcul ni résultat, même pour une clé identique.
+ *
+ * Compteurs Micrometer "singleflight.calls" (name, tenant, outcome = executed | coalesced | reused).
+ * Le résultat est partagé entre appelants : il ne doit pas être modifié.
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final Duration reuseWindow;
+    private final MeterRegistry registry;
+    private final Map<TenantKey<K>, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final Map<String, Counters> countersByTenant = new ConcurrentHashMap<>();
+
+    public SingleFlight(String name, Duration reuseWindow, MeterRegistry registry) {
+        this.name = name;
+        this.reuseWindow = reuseWindow;
+        this.registry = registry;
+    }
+
+    public V get(K rawKey, Supplier<V> loader) {
+        String tenant = TenantContext.current();
+        TenantKey<K> key = new TenantKey<>(tenant, rawKey);
+        Counters counters = counters(tenant);
+        while (true) {
+            Flight<V> current = flights.get(key);
+            if (current != null) {
+                if (!current.result.isDone()) {
+                    counters.coalesced.increment();
+                    return await(current);
+                }
+                if (current.isFresh(reuseWindow)) {
+                    counters.reused.increment();
+                    return await(current);
+                }
+                flights.remove(key, current);
+                continue;
+            }
+
+            Flight<V> flight = new Flight<>();
+            if (flights.putIfAbsent(key, flight) != null) continue;
+            counters.executed.increment();
+            return execute(key, flight, loader);
+        }
+    }
+
+    private V execute(TenantKey<K> key, Flight<V> flight, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        flight.completedAt = System.nanoTime();
+        if (reuseWindow.isZero()) flights.remove(key, flight);
+        flight.result.complete(value);
+        return value;
+    }
+
+    private static <V> V await(Flight<V> flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
+    /** Oublie les résultats conservés du tenant courant (ex. après une écriture qui les rend obsolètes). */
+    public void invalidateAll() {
+        String tenant = TenantContext.current();
+        flights.entrySet().removeIf(e -> e.getKey().tenant().equals(tenant) && e.getValue().result.isDone());
+    }
+
+    private Counters counters(String tenant) {
+        return countersByTenant.computeIfAbsent(tenant, t -> new Counters(
+                counter(t, "executed"), counter(t, "coalesced"), counter(t, "reused")));
+    }
+
+    private Counter counter(String tenant, String outcome) {
+        return Counter.builder("singleflight.calls")
+                .description("Appels regroupés par single-flight")
+                .tag("name", name)
+                .tag("tenant", tenant)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private record TenantKey<K>(String tenant, K key) {
+    }
+
+    private record Counters(Counter executed, Counter coalesced, Counter reused) {
+    }
+
+    private static final class Flight<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        volatile long completedAt;
+
+        boolean isFresh(Duration window) {
+            return System.nanoTime() - completedAt < window.toNanos();
+        }
+    }
+}
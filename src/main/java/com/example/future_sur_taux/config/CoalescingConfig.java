@@ -0,0 +1,33 @@
+package com.example.future_sur_taux.config;
+
+import com.example.future_sur_taux.book.BookView;
+import com.example.future_sur_taux.coalescing.SingleFlight;
+import com.example.future_sur_taux.dto.FutureDisplayDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Regroupement des chargements concurrents de l'écran d'affichage et des cotations Finnhub.
+ */
+@Configuration
+public class CoalescingConfig {
+
+    @Bean
+    public SingleFlight<LocalDate, BookView<List<FutureDisplayDTO>>> displayFlight(
+            @Value("${coalescing.display.reuse-window-ms:500}") long reuseWindowMillis, MeterRegistry registry) {
+        return new SingleFlight<>("futures.display", Duration.ofMillis(reuseWindowMillis), registry);
+    }
+
+    @Bean
+    public SingleFlight<String, BigDecimal> quoteFlight(
+            @Value("${coalescing.quotes.reuse-window-ms:2000}") long reuseWindowMillis, MeterRegistry registry) {
+        return new SingleFlight<>("finnhub.quote", Duration.ofMillis(reuseWindowMillis), registry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.future_sur_taux.config;
+
+import com.example.future_sur_taux.tenant.CurrentTenantResolver;
+import com.example.future_sur_taux.tenant.TenantConnectionProvider;
+import com.example.future_sur_taux.tenant.TenantFilter;
+import com.example.future_sur_taux.tenant.TenantRegistry;
+import io.micrometer.common.KeyValues;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+/**
+ * Multi-tenant par schéma : Hibernate prend ses connexions dans le pool du tenant courant,
+ * Flyway migre chaque schéma, les métriques HTTP portent le tag tenant.
+ */
+@Configuration
+public class TenancyConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer tenantHibernateProperties(TenantConnectionProvider connectionProvider,
+                                                                   CurrentTenantResolver tenantResolver) {
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, connectionProvider);
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, tenantResolver);
+        };
+    }
+
+    /**
+     * Migre le schéma par défaut puis chaque schéma de tenant (créé au besoin), avec la même
+     * configuration et son propre historique flyway_schema_history.
+     */
+    @Bean
+    public FlywayMigrationStrategy tenantMigrationStrategy(TenantRegistry tenantRegistry) {
+        return flyway -> {
+            flyway.migrate();
+            for (String tenant : tenantRegistry.tenantIds()) {
+                if (CurrentTenantResolver.DEFAULT_SCHEMA.equals(tenant)) continue;
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .schemas(tenant)
+                        .defaultSchema(tenant)
+                        .createSchemas(true)
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+
+    @Bean
+    public ServerRequestObservationConvention tenantRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                Object tenant = context.getCarrier().getAttribute(TenantFilter.TENANT_ATTRIBUTE);
+                return super.getLowCardinalityKeyValues(context).and("tenant", tenant != null ? tenant.toString() : "none");
+            }
+        };
+    }
+}
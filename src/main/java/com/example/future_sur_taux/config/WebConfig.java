@@ -1,7 +1,13 @@
 package com.example.future_sur_taux.config;
 
+import com.example.future_sur_taux.book.BookSnapshot;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -16,8 +22,30 @@ public class WebConfig {
                 registry.addMapping("/**")
                         .allowedOrigins("http://localhost:3000")  // Adresse du front
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                        .exposedHeaders(BookSnapshot.VERSION_HEADER)
                         .allowCredentials(true);
             }
         };
     }
+
+    /**
+     * Encodage binaire négocié (Accept: application/cbor) : dates en tableaux [a, m, j],
+     * BigDecimal en fraction décimale CBOR native au lieu de texte. JSON reste le défaut.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(Jackson2ObjectMapperBuilder.cbor()
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    }
+
+    /**
+     * ETag sur les listes interrogées en boucle par le front : 304 sans corps si rien n'a changé.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> listingEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/futures/display", "/api/underlying-assets", "/api/underlying-assets/*");
+        return registration;
+    }
 }
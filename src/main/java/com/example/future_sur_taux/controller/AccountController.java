@@ -0,0 +1,32 @@
+package com.example.future_sur_taux.controller;
+
+import com.example.future_sur_taux.dto.AccountMarginDTO;
+import com.example.future_sur_taux.dto.PositionDTO;
+import com.example.future_sur_taux.service.PortfolioMarginService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/accounts")
+@RequiredArgsConstructor
+public class AccountController {
+
+    private final PortfolioMarginService portfolioMarginService;
+
+    @PutMapping("/{accountId}/positions")
+    public AccountMarginDTO setPosition(@PathVariable String accountId, @RequestBody PositionDTO position) {
+        return portfolioMarginService.setPosition(accountId, position);
+    }
+
+    @GetMapping("/{accountId}/positions")
+    public List<PositionDTO> getPositions(@PathVariable String accountId) {
+        return portfolioMarginService.getPositions(accountId);
+    }
+
+    @GetMapping("/{accountId}/margin")
+    public AccountMarginDTO getMargin(@PathVariable String accountId) {
+        return portfolioMarginService.getMargin(accountId);
+    }
+}
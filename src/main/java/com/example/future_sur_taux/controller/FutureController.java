@@ -1,14 +1,23 @@
 package com.example.future_sur_taux.controller;
 
+import com.example.future_sur_taux.book.BookSnapshot;
+import com.example.future_sur_taux.book.BookView;
 import com.example.future_sur_taux.domain.Future;
 import com.example.future_sur_taux.domain.Underlying;
 import com.example.future_sur_taux.dto.FutureCreationDTO;
 import com.example.future_sur_taux.dto.FutureDisplayDTO;
+import com.example.future_sur_taux.dto.FutureSearchCriteria;
+import com.example.future_sur_taux.dto.FutureSummaryDTO;
+import com.example.future_sur_taux.dto.PageDTO;
+import com.example.future_sur_taux.pricing.MonteCarloResult;
+import com.example.future_sur_taux.service.FutureLifecycleService;
+import com.example.future_sur_taux.service.FutureRepricingService;
 import com.example.future_sur_taux.service.FutureService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +28,8 @@ import java.util.Map;
 public class FutureController {
 
     private final FutureService futureService;
+    private final FutureLifecycleService futureLifecycleService;
+    private final FutureRepricingService futureRepricingService;
 
     @PostMapping
     public ResponseEntity<Future> createFuture(@RequestBody FutureCreationDTO dto) {
@@ -41,8 +52,34 @@ public class FutureController {
         }
     }
     @GetMapping("/display")
-    public List<FutureDisplayDTO> getFuturesForDisplay() {
-        return futureService.getAllFuturesForDisplay();
+    public ResponseEntity<List<FutureDisplayDTO>> getFuturesForDisplay() {
+        BookView<List<FutureDisplayDTO>> view = futureService.getDisplayView();
+        return ResponseEntity.ok()
+                .header(BookSnapshot.VERSION_HEADER, String.valueOf(view.version()))
+                .body(view.data());
+    }
+
+    @GetMapping("/search")
+    public PageDTO<FutureSummaryDTO> searchFutures(@ModelAttribute FutureSearchCriteria criteria) {
+        return futureService.searchFutures(criteria);
+    }
+
+    @GetMapping("/{id}/monte-carlo")
+    public ResponseEntity<MonteCarloResult> getMonteCarloDiagnostics(@PathVariable Long id) {
+        MonteCarloResult result = futureService.getMonteCarloDiagnostics(id);
+        return result != null ? ResponseEntity.ok(result) : ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/reprice")
+    public ResponseEntity<Map<String, Object>> repriceLiveBook() {
+        int repriced = futureRepricingService.repriceLiveBook(LocalDate.now());
+        return ResponseEntity.ok(Map.of("repriced", repriced));
+    }
+
+    @PostMapping("/lifecycle/archive")
+    public ResponseEntity<Map<String, Object>> archiveExpired() {
+        int archived = futureLifecycleService.archiveExpiredAndFlagged(LocalDate.now());
+        return ResponseEntity.ok(Map.of("archived", archived));
     }
     
     @GetMapping("/test-data")
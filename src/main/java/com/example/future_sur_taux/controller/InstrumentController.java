@@ -0,0 +1,29 @@
+package com.example.future_sur_taux.controller;
+
+import com.example.future_sur_taux.dto.InstrumentSuggestionDTO;
+import com.example.future_sur_taux.service.InstrumentLookupIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/instruments")
+@RequiredArgsConstructor
+public class InstrumentController {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final InstrumentLookupIndex instrumentLookupIndex;
+
+    @GetMapping("/autocomplete")
+    public List<InstrumentSuggestionDTO> autocomplete(@RequestParam String q,
+                                                      @RequestParam(required = false) Set<InstrumentLookupIndex.KeyType> types,
+                                                      @RequestParam(defaultValue = "10") int limit) {
+        return instrumentLookupIndex.autocomplete(q, types, Math.min(limit, MAX_LIMIT));
+    }
+}
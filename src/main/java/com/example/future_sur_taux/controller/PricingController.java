@@ -0,0 +1,87 @@
+package com.example.future_sur_taux.controller;
+
+import com.example.future_sur_taux.dto.BackfillStatusDTO;
+import com.example.future_sur_taux.dto.FutureCreationDTO;
+import com.example.future_sur_taux.dto.WhatIfResultDTO;
+import com.example.future_sur_taux.service.PriceHistoryBackfillService;
+import com.example.future_sur_taux.service.WhatIfPricingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/pricing")
+@RequiredArgsConstructor
+public class PricingController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final WhatIfPricingService whatIfPricingService;
+    private final PriceHistoryBackfillService backfillService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Valorise des futures hypothétiques sans les enregistrer. Réponse NDJSON, une ligne par
+     * spécification dans l'ordre d'achèvement (index = position dans la requête).
+     */
+    @PostMapping(value = "/what-if", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> whatIf(
+            @RequestBody List<FutureCreationDTO> specs,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate valuationDate) {
+        if (specs.size() > whatIfPricingService.maxSpecs()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + whatIfPricingService.maxSpecs() + " specifications per request");
+        }
+        // Chargement dans le thread de la requête ; le corps est écrit hors transaction
+        WhatIfPricingService.Batch batch = whatIfPricingService.prepare(specs,
+                valuationDate != null ? valuationDate : LocalDate.now());
+        StreamingResponseBody body = out -> whatIfPricingService.price(batch, results -> write(out, results));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    /**
+     * Lance en arrière-plan la reconstitution des prix théoriques du tenant sur [from ; to].
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<BackfillStatusDTO> startBackfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(backfillService.start(from, to));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @GetMapping("/backfill")
+    public ResponseEntity<BackfillStatusDTO> backfillStatus() {
+        BackfillStatusDTO status = backfillService.status();
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.noContent().build();
+    }
+
+    private void write(OutputStream out, List<WhatIfResultDTO> results) {
+        try {
+            for (WhatIfResultDTO result : results) {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
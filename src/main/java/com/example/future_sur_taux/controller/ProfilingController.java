@@ -0,0 +1,53 @@
+package com.example.future_sur_taux.controller;
+
+import com.example.future_sur_taux.profiling.FlightRecorderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Map;
+
+/**
+ * Administration de l'enregistrement JFR (activée par profiling.admin.enabled=true).
+ */
+@RestController
+@RequestMapping("/api/admin/profiling")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "profiling.admin.enabled", havingValue = "true")
+public class ProfilingController {
+
+    private final FlightRecorderService flightRecorderService;
+
+    @PostMapping("/start")
+    public Map<String, Object> start(@RequestParam(defaultValue = "default") String settings,
+                                     @RequestParam(required = false) Long durationSeconds) throws IOException, ParseException {
+        return flightRecorderService.start(settings, durationSeconds);
+    }
+
+    @PostMapping("/stop")
+    public Map<String, Object> stop() throws IOException {
+        return flightRecorderService.stop();
+    }
+
+    @GetMapping
+    public Map<String, Object> status() {
+        return flightRecorderService.status();
+    }
+
+    @GetMapping("/recording")
+    public ResponseEntity<Resource> download() throws IOException {
+        Path file = flightRecorderService.download();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(new FileSystemResource(file));
+    }
+}
@@ -2,6 +2,8 @@ package com.example.future_sur_taux.controller;
 
 import com.example.future_sur_taux.domain.UnderlyingAsset;
 import com.example.future_sur_taux.domain.enumeration.UnderlyingType;
+import com.example.future_sur_taux.dto.CursorPageDTO;
+import com.example.future_sur_taux.dto.UnderlyingAssetListingDTO;
 import com.example.future_sur_taux.service.UnderlyingAssetService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -24,4 +26,11 @@ public class UnderlyingAssetController {
         List<UnderlyingAsset> assets = underlyingAssetService.getUnderlyingAssetsByType(type);
         return ResponseEntity.ok(assets);
     }
+
+    @GetMapping("/listing")
+    public CursorPageDTO<UnderlyingAssetListingDTO> getListing(@RequestParam UnderlyingType type,
+                                                               @RequestParam(required = false) Long after,
+                                                               @RequestParam(defaultValue = "100") int limit) {
+        return underlyingAssetService.getListing(type, after, limit);
+    }
 }
@@ -0,0 +1,191 @@
+package com.example.future_sur_taux.datagen;
+
+import com.example.future_sur_taux.book.BookSnapshotService;
+import com.example.future_sur_taux.domain.enumeration.DepositType;
+import com.example.future_sur_taux.domain.enumeration.SettlementMethod;
+import com.example.future_sur_taux.dto.FutureCreationDTO;
+import com.example.future_sur_taux.dto.FutureSearchCriteria;
+import com.example.future_sur_taux.repository.UnderlyingRepository;
+import com.example.future_sur_taux.repository.UnderlyingLookupRow;
+import com.example.future_sur_taux.service.FutureRepricingService;
+import com.example.future_sur_taux.service.FutureService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark d'échelle : pour chaque palier (datagen.steps, en nombre d'obligations), agrandit le
+ * jeu synthétique puis mesure création, affichage, revalorisation et recherche, ainsi que la
+ * mémoire. Résultats dans les logs et en CSV (datagen.report).
+ *
+ *   mvn spring-boot:run -Dspring-boot.run.profiles=datagen -Dspring-boot.run.arguments=--datagen.steps=1000,10000,100000
+ */
+@Slf4j
+@Component
+@Profile("datagen")
+@RequiredArgsConstructor
+public class ScaleBenchmarkRunner implements CommandLineRunner {
+
+    private final SyntheticDatasetGenerator generator;
+    private final FutureService futureService;
+    private final FutureRepricingService repricingService;
+    private final UnderlyingRepository underlyingRepository;
+    private final BookSnapshotService bookSnapshotService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${datagen.steps:1000,10000,100000}")
+    private long[] steps;
+
+    @Value("${datagen.futures-per-bond:4}")
+    private int futuresPerBond;
+
+    @Value("${datagen.creations-per-step:200}")
+    private int creationsPerStep;
+
+    @Value("${datagen.searches-per-step:500}")
+    private int searchesPerStep;
+
+    @Value("${datagen.report:target/scale-benchmark.csv}")
+    private String report;
+
+    @Value("${datagen.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Path reportPath = Path.of(report);
+        if (reportPath.getParent() != null) Files.createDirectories(reportPath.getParent());
+
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(reportPath))) {
+            csv.println("bonds,cashflows_loaded,load_s,create_p50_ms,create_p99_ms,display_ms,display_rows," +
+                    "reprice_ms,repriced,search_p50_ms,search_p99_ms,heap_mb,rss_mb");
+            for (long step : steps) {
+                csv.println(runStep(step));
+                csv.flush();
+            }
+        }
+        log.info("Rapport écrit dans {}", reportPath.toAbsolutePath());
+
+        if (exitWhenDone) System.exit(SpringApplication.exit(context));
+    }
+
+    private String runStep(long bonds) throws Exception {
+        long start = System.nanoTime();
+        long cashFlows = generator.growTo(bonds);
+        // Le chargement COPY contourne les écrivains de l'instantané
+        bookSnapshotService.rebuild();
+        double loadSeconds = (System.nanoTime() - start) / 1e9;
+
+        List<Long> underlyingIds = underlyingRepository.findLookupRows().stream().map(UnderlyingLookupRow::getId).toList();
+        SplittableRandom random = new SplittableRandom(bonds);
+
+        double[] create = sample(creationsPerStep,
+                () -> futureService.createFutureFromDTO(creation(underlyingIds.get(random.nextInt(underlyingIds.size())))));
+
+        long displayStart = System.nanoTime();
+        int displayRows = futureService.getAllFuturesForDisplay().size();
+        double displayMs = (System.nanoTime() - displayStart) / 1e6;
+
+        long repriceStart = System.nanoTime();
+        int repriced = repricingService.repriceLiveBook(LocalDate.now());
+        double repriceMs = (System.nanoTime() - repriceStart) / 1e6;
+
+        double[] search = sample(searchesPerStep, () -> futureService.searchFutures(searchCriteria(random, bonds)));
+
+        System.gc();
+        Runtime rt = Runtime.getRuntime();
+        long heapMb = (rt.totalMemory() - rt.freeMemory()) / (1024 * 1024);
+        long rssMb = rssMb();
+
+        String line = String.format(Locale.ROOT, "%d,%d,%.1f,%.2f,%.2f,%.1f,%d,%.1f,%d,%.2f,%.2f,%d,%d",
+                bonds, cashFlows, loadSeconds, percentile(create, 0.5), percentile(create, 0.99),
+                displayMs, displayRows, repriceMs, repriced, percentile(search, 0.5), percentile(search, 0.99),
+                heapMb, rssMb);
+        log.info("Palier {} obligations : {}", bonds, line);
+        return line;
+    }
+
+    private static FutureCreationDTO creation(Long underlyingId) {
+        FutureCreationDTO dto = new FutureCreationDTO();
+        LocalDate maturity = LocalDate.now().plusMonths(6);
+        dto.setSymbol("BENCH" + System.nanoTime());
+        dto.setParentTicker("BENCH");
+        dto.setSegment("SHORT_TERM");
+        dto.setMaturityDate(maturity);
+        dto.setFirstTradingDate(LocalDate.now());
+        dto.setLastTradingDate(maturity.minusDays(2));
+        dto.setLotSize(1);
+        dto.setContractMultiplier(1000);
+        dto.setTradingCurrency("TND");
+        dto.setTickSize(0.01);
+        dto.setTickValue(10.0);
+        dto.setPercentageMargin(BigDecimal.valueOf(5));
+        dto.setUnderlyingId(underlyingId);
+        dto.setSettlementMethod(SettlementMethod.CASH);
+        dto.setDepositType(DepositType.RATE);
+        dto.setInstrumentStatus(true);
+        return dto;
+    }
+
+    /** Alterne les critères réels du front : ISIN exact, préfixe de symbole, segment + plage de maturité. */
+    private FutureSearchCriteria searchCriteria(SplittableRandom random, long bonds) {
+        FutureSearchCriteria criteria = new FutureSearchCriteria();
+        long index = random.nextLong(bonds);
+        switch (random.nextInt(3)) {
+            case 0 -> criteria.setIsin(String.format("SY%010d", index * futuresPerBond));
+            case 1 -> criteria.setSymbolPrefix("FB" + index);
+            default -> {
+                criteria.setSegment("LONG_TERM");
+                criteria.setMaturityFrom(LocalDate.now().plusMonths(random.nextInt(12)));
+                criteria.setMaturityTo(criteria.getMaturityFrom().plusMonths(1));
+            }
+        }
+        return criteria;
+    }
+
+    private static double[] sample(int count, Supplier<?> call) {
+        double[] millis = new double[count];
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            call.get();
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis;
+    }
+
+    private static double percentile(double[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.floor(p * sorted.length))];
+    }
+
+    private static long rssMb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Hors Linux : RSS non disponible
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.future_sur_taux.datagen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Remplit le schéma avec des obligations, coupons, sous-jacents et futures synthétiques,
+ * chargés par COPY (format texte) par tranches.
+ *
+ * Chaque obligation est dérivée uniquement de (graine, indice) : deux passes sur le même indice
+ * produisent les mêmes lignes, ce qui permet d'écrire une table à la fois par tranche et de
+ * relancer la génération pour agrandir un jeu existant de façon reproductible.
+ */
+@Slf4j
+@Component
+@Profile("datagen")
+public class SyntheticDatasetGenerator {
+
+    // Mois d'échéance trimestriels et codes associés (H, M, U, Z)
+    private static final int[] QUARTER_MONTHS = {3, 6, 9, 12};
+    private static final char[] QUARTER_CODES = {'H', 'M', 'U', 'Z'};
+
+    private final DataSource dataSource;
+    private final long seed;
+    private final int chunkSize;
+    private final int futuresPerBond;
+    private final LocalDate today = LocalDate.now();
+
+    public SyntheticDatasetGenerator(DataSource dataSource,
+                                     @Value("${datagen.seed:42}") long seed,
+                                     @Value("${datagen.chunk-size:20000}") int chunkSize,
+                                     @Value("${datagen.futures-per-bond:4}") int futuresPerBond) {
+        this.dataSource = dataSource;
+        this.seed = seed;
+        this.chunkSize = chunkSize;
+        this.futuresPerBond = futuresPerBond;
+    }
+
+    /**
+     * Nombre d'obligations synthétiques déjà présentes (identifiant "SYN-BOND-…").
+     */
+    public long countBonds() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select count(*) from asset where symbol like 'SYN-BOND-%'")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Ajoute des obligations (et leurs coupons, sous-jacents, futures) jusqu'à en avoir targetBonds.
+     * @return nombre de coupons chargés
+     */
+    public long growTo(long targetBonds) throws SQLException, IOException {
+        long existing = countBonds();
+        long cashFlows = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            long assetIdBase = maxId(connection, "asset");
+            long underlyingIdBase = maxId(connection, "underlying");
+
+            for (long from = existing; from < targetBonds; from += chunkSize) {
+                long to = Math.min(targetBonds, from + chunkSize);
+                List<BondSpec> bonds = new ArrayList<>((int) (to - from));
+                for (long i = from; i < to; i++) {
+                    bonds.add(bondSpec(i, assetIdBase + 1 + (i - existing), underlyingIdBase + 1 + (i - existing)));
+                }
+                cashFlows += loadChunk(connection, bonds);
+                connection.commit();
+                log.info("Jeu synthétique : {} / {} obligations", to, targetBonds);
+            }
+
+            resetIdentity(connection, "asset");
+            resetIdentity(connection, "underlying");
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("analyze asset, bond, cash_flow, underlying, underlying_asset, future");
+            }
+            connection.commit();
+        }
+        return cashFlows;
+    }
+
+    private long loadChunk(Connection connection, List<BondSpec> bonds) throws SQLException, IOException {
+        PGConnection pg = connection.unwrap(PGConnection.class);
+
+        copy(pg, "copy asset (id, name, symbol, description, isin) from stdin", out -> {
+            for (BondSpec b : bonds) {
+                row(out, b.assetId, "Obligation synthétique " + b.index, b.symbol(), "Obligation générée", b.isin());
+            }
+        });
+        copy(pg, "copy bond (id, nominal, coupon_amount, periodicity, maturity_date, underlying_price, rate_type, index_rate, day_base) from stdin", out -> {
+            for (BondSpec b : bonds) {
+                row(out, b.assetId, b.nominal, b.couponAmount(), b.periodicityOrdinal, b.maturity,
+                        b.cleanPrice, b.variableRate ? "VARIABLE_RATE" : "FIXED_RATE",
+                        b.variableRate ? b.indexRate : null, null);
+            }
+        });
+        long[] cashFlowCount = {0};
+        copy(pg, "copy cash_flow (payment_date, amount, bond_id) from stdin", out -> {
+            for (BondSpec b : bonds) {
+                BigDecimal coupon = b.couponAmount();
+                for (LocalDate d = b.firstCouponDate(); !d.isAfter(b.maturity); d = d.plusMonths(b.periodMonths)) {
+                    row(out, d, d.equals(b.maturity) ? coupon.add(b.nominal) : coupon, b.assetId);
+                    cashFlowCount[0]++;
+                }
+            }
+        });
+        copy(pg, "copy underlying (id, identifier, underlying_type) from stdin", out -> {
+            for (BondSpec b : bonds) {
+                row(out, b.underlyingId, b.symbol(), "BONDS");
+            }
+        });
+        copy(pg, "copy underlying_asset (id, asset_id) from stdin", out -> {
+            for (BondSpec b : bonds) {
+                row(out, b.underlyingId, b.assetId);
+            }
+        });
+        copy(pg, "copy future (symbol, description, isin, expiration_code, parent_ticker, full_name, segment, " +
+                "first_trading_date, last_trading_date, maturity_date, expiry_date, settlement_date, tick_size, tick_value, " +
+                "trading_currency, lot_size, contract_multiplier, underlying_id, settlement_method, collateral_method, " +
+                "deposit_type, percentage_margin, instrument_status, flag_for_delete, calendar_id) from stdin", out -> {
+            for (BondSpec b : bonds) writeFutures(out, b);
+        });
+        return cashFlowCount[0];
+    }
+
+    /**
+     * Échéances trimestrielles consécutives à partir du trimestre précédent : la première est
+     * en général échue, comme dans un carnet réel avant archivage.
+     */
+    private void writeFutures(Writer out, BondSpec b) throws IOException {
+        LocalDate quarter = today.withDayOfMonth(1).minusMonths(3);
+        int q = (quarter.getMonthValue() - 1) / 3;
+        int year = quarter.getYear();
+        String parent = "FB" + b.index;
+        for (int k = 0; k < futuresPerBond; k++, q++) {
+            if (q == 4) {
+                q = 0;
+                year++;
+            }
+            LocalDate maturity = LocalDate.of(year, QUARTER_MONTHS[q], 1).plusDays(19);
+            if (!maturity.isBefore(b.maturity)) break;
+            String code = "" + QUARTER_CODES[q] + (year % 100);
+            row(out, parent + code, "Future " + parent + " " + code, String.format("SY%010d", b.index * futuresPerBond + k),
+                    code, parent, "Future sur " + b.symbol() + " " + code, b.segment,
+                    maturity.minusMonths(3 * futuresPerBond), maturity.minusDays(2), maturity, maturity,
+                    maturity.plusDays(2), 0.01, 10.0, b.currency, 1, 1000, b.underlyingId, "CASH", "CASHCOLLATERAL",
+                    "RATE", b.percentageMargin, true, false, b.currency);
+        }
+    }
+
+    private BondSpec bondSpec(long index, long assetId, long underlyingId) {
+        SplittableRandom random = new SplittableRandom(seed * 1_000_003L + index);
+        BondSpec b = new BondSpec();
+        b.index = index;
+        b.assetId = assetId;
+        b.underlyingId = underlyingId;
+        b.nominal = random.nextInt(10) < 8 ? BigDecimal.valueOf(100) : BigDecimal.valueOf(1000);
+        b.couponRate = 0.01 + random.nextDouble() * 0.07;
+        boolean annual = random.nextBoolean();
+        b.periodMonths = annual ? 12 : 6;
+        b.periodicityOrdinal = annual ? 6 : 5; // Periodicity.ANNUAL / SEMI_ANNUAL (ORDINAL)
+        b.maturity = today.plusDays(90 + random.nextInt(30 * 365));
+        b.cleanPrice = b.nominal.multiply(BigDecimal.valueOf(0.85 + random.nextDouble() * 0.3)).setScale(2, RoundingMode.HALF_UP);
+        b.variableRate = random.nextInt(10) == 0;
+        b.indexRate = BigDecimal.valueOf(0.01 + random.nextDouble() * 0.05).setScale(4, RoundingMode.HALF_UP);
+        b.percentageMargin = BigDecimal.valueOf(2 + random.nextInt(7));
+        b.segment = random.nextInt(3) == 0 ? "LONG_TERM" : "SHORT_TERM";
+        b.currency = random.nextInt(5) == 0 ? "EUR" : "TND";
+        return b;
+    }
+
+    private static final class BondSpec {
+        long index;
+        long assetId;
+        long underlyingId;
+        BigDecimal nominal;
+        double couponRate;
+        int periodMonths;
+        int periodicityOrdinal;
+        LocalDate maturity;
+        BigDecimal cleanPrice;
+        boolean variableRate;
+        BigDecimal indexRate;
+        BigDecimal percentageMargin;
+        String segment;
+        String currency;
+
+        String symbol() {
+            return "SYN-BOND-" + index;
+        }
+
+        String isin() {
+            return String.format("SB%010d", index);
+        }
+
+        BigDecimal couponAmount() {
+            return nominal.multiply(BigDecimal.valueOf(couponRate * periodMonths / 12)).setScale(2, RoundingMode.HALF_UP);
+        }
+
+        /** Premier coupon après la date du jour, en remontant l'échéancier depuis la maturité. */
+        LocalDate firstCouponDate() {
+            LocalDate now = LocalDate.now();
+            long periods = ChronoUnit.MONTHS.between(now, maturity) / periodMonths;
+            LocalDate first = maturity.minusMonths(periods * periodMonths);
+            // Un coupon passé pour que l'intérêt couru soit calculable
+            return first.minusMonths(periodMonths);
+        }
+    }
+
+    // ---------------- COPY ----------------
+
+    private interface RowWriter {
+        void write(Writer out) throws IOException;
+    }
+
+    private static void copy(PGConnection pg, String sql, RowWriter rows) throws SQLException, IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(pg, sql, 1 << 16), StandardCharsets.UTF_8), 1 << 16)) {
+            rows.write(out);
+        }
+    }
+
+    /** Ligne au format texte de COPY : tabulations, \N pour NULL. */
+    private static void row(Writer out, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.write('\t');
+            Object v = values[i];
+            if (v == null) out.write("\\N");
+            else if (v instanceof Boolean bool) out.write(bool ? "t" : "f");
+            else if (v instanceof BigDecimal decimal) out.write(decimal.toPlainString());
+            else out.write(v.toString());
+        }
+        out.write('\n');
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /** Les ids ont été fournis explicitement : on recale la séquence d'identité. */
+    private static void resetIdentity(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("select setval(pg_get_serial_sequence('" + table + "', 'id'), " +
+                    "(select greatest(coalesce(max(id), 0), 1) from " + table + "))");
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.future_sur_taux.domain;
 
+import com.example.future_sur_taux.domain.enumeration.DayBase;
 import com.example.future_sur_taux.domain.enumeration.Periodicity;
 import com.example.future_sur_taux.domain.enumeration.RateType;
+import com.example.future_sur_taux.pricing.PricingContext;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -32,7 +34,11 @@ public class Bond extends Asset {
     @Enumerated(EnumType.STRING)
     @Column(name = "rate_type")
     private RateType rateType;           // FIXE ou VARIABLE
-    private BigDecimal indexRate;        // Indice de référence (si taux variable)
+    @Column(precision = 38, scale = 8)
+    private BigDecimal indexRate;        // Indice de référence en décimal, 0.035 = 3,5 % (si taux variable)
+
+    @Enumerated(EnumType.STRING)
+    private DayBase dayBase;             // Base de calcul (null = base par défaut du pricing)
 
     // ---------------- Flux de coupons ----------------
     @OneToMany(mappedBy = "bond", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -42,10 +48,17 @@ public class Bond extends Asset {
      * Récupère la prochaine date de paiement de coupon après la date actuelle.
      */
     public LocalDate getNextCouponDate() {
+        return getNextCouponDate(LocalDate.now());
+    }
+
+    /**
+     * Prochaine date de paiement de coupon à partir de la date de valeur (incluse).
+     */
+    public LocalDate getNextCouponDate(LocalDate valuationDate) {
         if (futureCoupons == null || futureCoupons.isEmpty()) return null;
         return futureCoupons.stream()
                 .map(CashFlow::getPaymentDate)
-                .filter(d -> !d.isBefore(LocalDate.now()))
+                .filter(d -> !d.isBefore(valuationDate))
                 .min(Comparator.naturalOrder())
                 .orElse(null);
     }
@@ -55,13 +68,23 @@ public class Bond extends Asset {
      * @param tauxSansRisque taux d’actualisation (ex: taux sans risque)
      */
     public BigDecimal calculerPVCoupons(BigDecimal tauxSansRisque) {
+        return calculerPVCoupons(tauxSansRisque,
+                new PricingContext(LocalDate.now(), dayBase, null, 0, 0));
+    }
+
+    /**
+     * PV des coupons payés à partir de la date de valeur, fractions d'année lues dans le contexte.
+     */
+    public BigDecimal calculerPVCoupons(BigDecimal tauxSansRisque, PricingContext context) {
         if (futureCoupons == null || futureCoupons.isEmpty()) return BigDecimal.ZERO;
         BigDecimal pv = BigDecimal.ZERO;
-        LocalDate today = LocalDate.now();
+        LocalDate valuationDate = context.getValuationDate();
+        double base = 1 + tauxSansRisque.doubleValue();
         for (CashFlow cf : futureCoupons) {
-            double years = (double) (cf.getPaymentDate().toEpochDay() - today.toEpochDay()) / 365.0;
+            if (cf.getPaymentDate() == null || cf.getAmount() == null || cf.getPaymentDate().isBefore(valuationDate)) continue;
+            double years = context.yearFraction(cf.getPaymentDate());
             pv = pv.add(cf.getAmount().divide(
-                    BigDecimal.valueOf(Math.pow(1 + tauxSansRisque.doubleValue(), years)),
+                    BigDecimal.valueOf(Math.pow(base, years)),
                     BigDecimal.ROUND_HALF_UP
             ));
         }
@@ -72,23 +95,32 @@ public class Bond extends Asset {
      * Calcule l’intérêt couru depuis le dernier coupon (A).
      */
     public BigDecimal calculerInteretCouru() {
+        return calculerInteretCouru(new PricingContext(LocalDate.now(), dayBase, null, 0, 0));
+    }
+
+    /**
+     * Intérêt couru à la date de valeur du contexte, au prorata de la base de calcul.
+     */
+    public BigDecimal calculerInteretCouru(PricingContext context) {
         if (futureCoupons == null || futureCoupons.isEmpty() || couponAmount == null) return BigDecimal.ZERO;
 
-        LocalDate lastCouponDate = getLastCouponDate();
-        LocalDate nextCouponDate = getNextCouponDate();
+        LocalDate valuationDate = context.getValuationDate();
+        LocalDate lastCouponDate = getLastCouponDate(valuationDate);
+        LocalDate nextCouponDate = getNextCouponDate(valuationDate);
         if (lastCouponDate == null || nextCouponDate == null) return BigDecimal.ZERO;
 
-        long joursEcoules = java.time.temporal.ChronoUnit.DAYS.between(lastCouponDate, LocalDate.now());
-        long joursTotaux = java.time.temporal.ChronoUnit.DAYS.between(lastCouponDate, nextCouponDate);
+        double ecoule = context.yearFraction(lastCouponDate, valuationDate);
+        double total = context.yearFraction(lastCouponDate, nextCouponDate);
+        if (total <= 0) return BigDecimal.ZERO;
 
-        return couponAmount.multiply(BigDecimal.valueOf((double) joursEcoules / joursTotaux));
+        return couponAmount.multiply(BigDecimal.valueOf(ecoule / total));
     }
 
-    private LocalDate getLastCouponDate() {
+    private LocalDate getLastCouponDate(LocalDate valuationDate) {
         if (futureCoupons == null || futureCoupons.isEmpty()) return null;
         return futureCoupons.stream()
                 .map(CashFlow::getPaymentDate)
-                .filter(d -> d.isBefore(LocalDate.now()))
+                .filter(d -> d.isBefore(valuationDate))
                 .max(Comparator.naturalOrder())
                 .orElse(null);
     }
@@ -0,0 +1,149 @@
+package com.example.future_sur_taux.domain;
+
+import com.example.future_sur_taux.domain.enumeration.CollateralMethod;
+import com.example.future_sur_taux.domain.enumeration.DepositType;
+import com.example.future_sur_taux.domain.enumeration.SettlementMethod;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Copie figée d'un Future échu ou marqué pour suppression, sortie de la table chaude.
+ * Reprend toutes les colonnes de future : voir {@link #toFuture} pour le restaurer ou le valoriser.
+ */
+@Entity
+@Table(name = "future_archive", indexes = {
+        @Index(name = "idx_future_archive_maturity", columnList = "maturityDate"),
+        @Index(name = "idx_future_archive_future_id", columnList = "futureId")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FutureArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long futureId;              // Identifiant d'origine dans la table future
+    private Long underlyingId;
+
+    private String symbol;
+    private String description;
+    private String isin;
+    private String expirationCode;
+    private String parentTicker;
+    private String fullName;
+    private String segment;
+    private String tradingCurrency;
+
+    private LocalDate firstTradingDate;
+    private LocalDate maturityDate;
+    private LocalDate lastTradingDate;
+    private LocalDate expiryDate;
+    private LocalDate deletionDate;
+    private LocalDate settlementDate;
+    private LocalDate orderDeletionDate;
+
+    private Double tickSize;
+    private Double tickValue;
+    private Integer lotSize;
+    private Integer contractMultiplier;
+
+    @Enumerated(EnumType.STRING)
+    private SettlementMethod settlementMethod;
+    @Enumerated(EnumType.STRING)
+    private CollateralMethod collateralMethod;
+    @Enumerated(EnumType.STRING)
+    private DepositType depositType;
+
+    @Column(precision = 5, scale = 2)
+    private BigDecimal percentageMargin;
+    @Column(precision = 15, scale = 6)
+    private BigDecimal theoreticalPrice;
+    @Column(precision = 20, scale = 6)
+    private BigDecimal contractValue;
+    @Column(precision = 20, scale = 6)
+    private BigDecimal initialMarginAmount;
+
+    private Boolean instrumentStatus;
+    private Boolean flagForDelete;
+    private BigDecimal issuedQty;
+
+    private String loadId;
+    private String activeLoadId;
+    private String secondaryLoadId;
+    private String internalLoadId;
+    private String md5MulticastChannelId;
+    private String secMD5MulticastChannelId;
+    private String marketDataChannelId;
+    private String referencePriceTable;
+    private BigDecimal referencePrice;
+    private Boolean blueMonth;
+
+    private String mobType;
+    private String postTradeParameter;
+    private String tradingParameter;
+    private String calendarId;
+
+    private String archiveReason;       // EXPIRED / FLAGGED / DELETED
+    private LocalDateTime archivedAt;
+
+    /**
+     * Future transitoire reconstitué depuis l'archive (id d'origine, sous-jacent fourni par l'appelant).
+     */
+    public Future toFuture(Underlying underlying) {
+        return Future.builder()
+                .id(futureId)
+                .symbol(symbol)
+                .description(description)
+                .isin(isin)
+                .expirationCode(expirationCode)
+                .parentTicker(parentTicker)
+                .fullName(fullName)
+                .segment(segment)
+                .firstTradingDate(firstTradingDate)
+                .lastTradingDate(lastTradingDate)
+                .maturityDate(maturityDate)
+                .expiryDate(expiryDate)
+                .tickSize(tickSize)
+                .tickValue(tickValue)
+                .tradingCurrency(tradingCurrency)
+                .lotSize(lotSize)
+                .contractMultiplier(contractMultiplier)
+                .underlying(underlying)
+                .settlementMethod(settlementMethod)
+                .collateralMethod(collateralMethod)
+                .depositType(depositType)
+                .percentageMargin(percentageMargin)
+                .theoreticalPrice(theoreticalPrice)
+                .contractValue(contractValue)
+                .initialMarginAmount(initialMarginAmount)
+                .instrumentStatus(instrumentStatus)
+                .flagForDelete(flagForDelete)
+                .issuedQty(issuedQty)
+                .loadId(loadId)
+                .activeLoadId(activeLoadId)
+                .secondaryLoadId(secondaryLoadId)
+                .internalLoadId(internalLoadId)
+                .md5MulticastChannelId(md5MulticastChannelId)
+                .secMD5MulticastChannelId(secMD5MulticastChannelId)
+                .marketDataChannelId(marketDataChannelId)
+                .referencePriceTable(referencePriceTable)
+                .referencePrice(referencePrice)
+                .blueMonth(blueMonth)
+                .settlementDate(settlementDate)
+                .deletionDate(deletionDate)
+                .orderDeletionDate(orderDeletionDate)
+                .mobType(mobType)
+                .postTradeParameter(postTradeParameter)
+                .tradingParameter(tradingParameter)
+                .calendarId(calendarId)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.future_sur_taux.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position nette d'un compte sur un future (quantité signée : > 0 long, < 0 short).
+ */
+@Entity
+@Table(name = "position", uniqueConstraints =
+        @UniqueConstraint(name = "uk_position_account_future", columnNames = {"account_id", "future_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Position {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private String accountId;
+
+    @Column(name = "future_id", nullable = false)
+    private Long futureId;          // Pas de clé étrangère : la position survit à l'archivage du future
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    private LocalDateTime updatedAt;
+}
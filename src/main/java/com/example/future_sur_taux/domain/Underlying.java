@@ -13,7 +13,6 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-//@Table(name = "underlying", schema = CurrentTenantResolver.DEFAULT_SCHEMA)
 @Table(name = "underlying")
 
 //@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
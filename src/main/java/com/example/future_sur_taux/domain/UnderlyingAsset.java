@@ -16,7 +16,6 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-//@Table(name = "underlying_asset", schema = CurrentTenantResolver.DEFAULT_SCHEMA)
 @Table(name = "underlying_asset")
 
 //@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
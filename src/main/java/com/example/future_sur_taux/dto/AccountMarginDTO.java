@@ -0,0 +1,20 @@
+package com.example.future_sur_taux.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountMarginDTO {
+    private String accountId;
+    private BigDecimal initialMargin;        // scanRisk + spreadCharge - interCommodityCredit
+    private BigDecimal scanRisk;             // Pire perte des scénarios, somme sur les sous-jacents
+    private BigDecimal spreadCharge;         // Charge des spreads entre échéances
+    private BigDecimal interCommodityCredit; // Crédit entre sous-jacents de sens opposés
+    private int underlyingGroups;
+    private int positions;
+}
@@ -0,0 +1,22 @@
+package com.example.future_sur_taux.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillStatusDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private String state;             // RUNNING / DONE / FAILED
+    private long futuresProcessed;
+    private long pricesWritten;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.example.future_sur_taux.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page par curseur : nextCursor est à renvoyer dans "after" pour la page suivante (null = fin).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private Long nextCursor;
+}
@@ -0,0 +1,29 @@
+package com.example.future_sur_taux.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class FutureSearchCriteria {
+
+    // 🔹 Critères (tous optionnels, combinés en ET)
+    private String isin;
+    private String symbolPrefix;
+    private String parentTicker;
+    private String segment;
+    private String currency;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate maturityFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate maturityTo;
+
+    // 🔹 Par défaut seuls les contrats vivants sont retournés
+    private boolean includeExpired = false;
+
+    // 🔹 Pagination
+    private int page = 0;
+    private int size = 50;
+}
@@ -0,0 +1,28 @@
+package com.example.future_sur_taux.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection légère d'un Future pour les résultats de recherche.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FutureSummaryDTO {
+    private Long id;
+    private String symbol;
+    private String isin;
+    private String parentTicker;
+    private String segment;
+    private String tradingCurrency;
+    private LocalDate maturityDate;
+    private LocalDate lastTradingDate;
+    private BigDecimal theoreticalPrice;
+    private Boolean instrumentStatus;
+    private Long underlyingId;
+}
@@ -0,0 +1,14 @@
+package com.example.future_sur_taux.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstrumentSuggestionDTO {
+    private String key;      // Clé indexée (en majuscules)
+    private String keyType;  // FUTURE_SYMBOL / FUTURE_ISIN / FUTURE_PARENT_TICKER / UNDERLYING_IDENTIFIER
+    private Long id;         // Id du Future ou de l'Underlying
+}
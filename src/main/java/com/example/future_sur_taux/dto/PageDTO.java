@@ -0,0 +1,27 @@
+package com.example.future_sur_taux.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Page de résultats sérialisable, indépendante de l'implémentation Spring Data.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDTO<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    public static <T> PageDTO<T> of(Page<T> page) {
+        return new PageDTO<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.future_sur_taux.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionDTO {
+    private Long futureId;
+    private Long quantity;   // > 0 long, < 0 short, 0 = clôture
+}
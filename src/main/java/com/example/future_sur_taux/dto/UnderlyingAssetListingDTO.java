@@ -0,0 +1,22 @@
+package com.example.future_sur_taux.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Ligne plate de la liste des sous-jacents (sans entité Asset/Bond ni coupons).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnderlyingAssetListingDTO {
+    private Long id;
+    private String identifier;
+    private String underlyingType;
+    private String assetSymbol;
+    private String isin;
+    private LocalDate maturityDate;   // Renseignée si l'actif est une obligation
+}
@@ -0,0 +1,27 @@
+package com.example.future_sur_taux.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfResultDTO {
+    private int index;                     // Position de la spécification dans la requête
+    private String symbol;
+    private Long underlyingId;
+    private LocalDate maturityDate;
+    private BigDecimal theoreticalPrice;
+    private BigDecimal contractValue;
+    private BigDecimal initialMarginAmount;
+    private String error;                  // null si la spécification a été valorisée
+
+    public static WhatIfResultDTO failed(int index, FutureCreationDTO spec, String error) {
+        return new WhatIfResultDTO(index, spec.getSymbol(), spec.getUnderlyingId(), spec.getMaturityDate(),
+                null, null, null, error);
+    }
+}
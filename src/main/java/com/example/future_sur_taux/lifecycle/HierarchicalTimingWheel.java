@@ -0,0 +1,95 @@
+package com.example.future_sur_taux.lifecycle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Roue temporelle hiérarchique (4 niveaux de 64 cases) sur des ticks entiers, ici des jours.
+ *
+ * Un élément est rangé au niveau dont la portée couvre son échéance : niveau 0 pour les 64
+ * prochains ticks, niveau 1 pour les 64² suivants, etc. Quand la roue passe au début d'une case
+ * d'un niveau supérieur, son contenu redescend d'un ou plusieurs niveaux (cascade). Ajout O(1),
+ * chaque élément descend au plus 3 fois : le coût par événement ne dépend pas du nombre d'éléments
+ * en attente. Non synchronisée.
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long RANGE = 1L << (BITS * LEVELS);
+
+    private final List<List<Entry<T>>> buckets = new ArrayList<>(LEVELS * SLOTS);
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimingWheel(long currentTick) {
+        this.currentTick = currentTick;
+        for (int i = 0; i < LEVELS * SLOTS; i++) buckets.add(new ArrayList<>());
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return false si l'échéance est déjà atteinte (tick <= tick courant) : à traiter par l'appelant
+     */
+    public boolean add(long tick, T item) {
+        if (tick <= currentTick) return false;
+        if (tick - currentTick >= RANGE) throw new IllegalArgumentException("Échéance hors de portée de la roue : " + tick);
+        place(new Entry<>(tick, item));
+        size++;
+        return true;
+    }
+
+    /**
+     * Avance jusqu'au tick donné (inclus) et remet au consommateur les éléments échus, tick par tick.
+     */
+    public void advanceTo(long targetTick, Consumer<List<T>> onDue) {
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+
+            List<Entry<T>> slot = bucket(0, (int) (currentTick & MASK));
+            if (slot.isEmpty()) continue;
+            List<T> due = new ArrayList<>(slot.size());
+            for (Entry<T> entry : slot) due.add(entry.item());
+            slot.clear();
+            size -= due.size();
+            onDue.accept(due);
+        }
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            // Début d'une case de ce niveau seulement si tous les bits des niveaux inférieurs sont nuls
+            if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) return;
+            List<Entry<T>> slot = bucket(level, (int) ((currentTick >>> (BITS * level)) & MASK));
+            if (slot.isEmpty()) continue;
+            List<Entry<T>> moved = new ArrayList<>(slot);
+            slot.clear();
+            for (Entry<T> entry : moved) place(entry);
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.tick() - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) level++;
+        bucket(level, (int) ((entry.tick() >>> (BITS * level)) & MASK)).add(entry);
+    }
+
+    private List<Entry<T>> bucket(int level, int slot) {
+        return buckets.get(level * SLOTS + slot);
+    }
+
+    private record Entry<T>(long tick, T item) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.future_sur_taux.lifecycle;
+
+/**
+ * Transition planifiée d'un future.
+ */
+public record LifecycleEvent(long futureId, Type type) {
+
+    /** Ordre de traitement au sein d'une même journée. */
+    public enum Type {
+        ACTIVATE,       // firstTradingDate : instrumentStatus = true
+        ROLL,           // lastTradingDate : création du contrat suivant de la série
+        STOP_TRADING,   // lendemain de lastTradingDate : instrumentStatus = false
+        DELETE          // deletionDate : flagForDelete = true
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.future_sur_taux.margin;
+
+import com.example.future_sur_taux.dto.AccountMarginDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * État de marge d'un compte, maintenu de façon incrémentale.
+ *
+ * Les positions sont regroupées par sous-jacent (combined commodity) : chaque groupe garde la somme
+ * pondérée des tableaux de scénarios de ses contrats et les totaux long/short. Un changement de
+ * position ne touche que son groupe (16 additions), puis les totaux du compte sont ajustés par
+ * différence : le coût ne dépend pas de la taille du compte.
+ */
+final class AccountMarginState {
+
+    private final String accountId;
+    private final Map<Long, Long> quantities = new HashMap<>();
+    private final Map<Long, ContractRiskArray> contracts = new HashMap<>();
+    private final Map<Long, GroupState> groups = new HashMap<>();
+
+    // Agrégats sur les groupes
+    private double scanRisk;
+    private double spreadCharge;
+    private double longRisk;    // risque des groupes nets acheteurs
+    private double shortRisk;   // risque des groupes nets vendeurs
+
+    AccountMarginState(String accountId) {
+        this.accountId = accountId;
+    }
+
+    synchronized void apply(ContractRiskArray contract, long quantity, double intraSpreadRate) {
+        Long previous = quantities.get(contract.futureId());
+        if (previous != null) {
+            move(contracts.get(contract.futureId()), previous, -1, intraSpreadRate);
+        }
+        if (quantity != 0) {
+            move(contract, quantity, +1, intraSpreadRate);
+            quantities.put(contract.futureId(), quantity);
+            contracts.put(contract.futureId(), contract);
+        } else {
+            quantities.remove(contract.futureId());
+            contracts.remove(contract.futureId());
+        }
+    }
+
+    /** Remplace les paramètres de risque d'un contrat détenu (après revalorisation). */
+    synchronized void reprice(ContractRiskArray contract, double intraSpreadRate) {
+        Long quantity = quantities.get(contract.futureId());
+        if (quantity == null) return;
+        apply(contract, quantity, intraSpreadRate);
+    }
+
+    synchronized boolean isEmpty() {
+        return quantities.isEmpty();
+    }
+
+    synchronized AccountMarginDTO toMargin(double interCommodityCreditRate) {
+        double credit = interCommodityCreditRate * Math.min(longRisk, shortRisk);
+        double initialMargin = Math.max(0, scanRisk + spreadCharge - credit);
+        return new AccountMarginDTO(
+                accountId,
+                money(initialMargin),
+                money(scanRisk),
+                money(spreadCharge),
+                money(credit),
+                groups.size(),
+                quantities.size());
+    }
+
+    private void move(ContractRiskArray contract, long quantity, int direction, double intraSpreadRate) {
+        GroupState group = groups.computeIfAbsent(contract.underlyingId(), id -> new GroupState());
+        detach(group);
+        group.add(contract, quantity, direction);
+        group.recompute(intraSpreadRate);
+        if (group.isEmpty()) {
+            groups.remove(contract.underlyingId());
+        } else {
+            attach(group);
+        }
+    }
+
+    private void attach(GroupState group) {
+        scanRisk += group.scanRisk;
+        spreadCharge += group.spreadCharge;
+        if (group.netQuantity > 0) longRisk += group.risk();
+        else if (group.netQuantity < 0) shortRisk += group.risk();
+    }
+
+    private void detach(GroupState group) {
+        scanRisk -= group.scanRisk;
+        spreadCharge -= group.spreadCharge;
+        if (group.netQuantity > 0) longRisk -= group.risk();
+        else if (group.netQuantity < 0) shortRisk -= group.risk();
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Un groupe = toutes les échéances d'un même sous-jacent.
+     */
+    private static final class GroupState {
+        final double[] scenarios = new double[ContractRiskArray.SCENARIOS];
+        long longQuantity;
+        long shortQuantity;
+        double longScanRange;   // Σ quantité × fourchette, côté long
+        double shortScanRange;
+        long netQuantity;
+        double scanRisk;
+        double spreadCharge;
+
+        void add(ContractRiskArray contract, long quantity, int direction) {
+            double[] losses = contract.losses();
+            long signed = quantity * direction;
+            for (int s = 0; s < scenarios.length; s++) {
+                scenarios[s] += signed * losses[s];
+            }
+            long lots = Math.abs(quantity) * direction;
+            if (quantity > 0) {
+                longQuantity += lots;
+                longScanRange += lots * contract.priceScanRange();
+            } else {
+                shortQuantity += lots;
+                shortScanRange += lots * contract.priceScanRange();
+            }
+            netQuantity += signed;
+        }
+
+        /**
+         * Scan risk = pire perte sur les scénarios ; les écarts entre échéances (long vs short)
+         * sont supposés parfaitement corrélés par le scan, d'où une charge de spread forfaitaire.
+         */
+        void recompute(double intraSpreadRate) {
+            double worst = 0;
+            for (double loss : scenarios) {
+                if (loss > worst) worst = loss;
+            }
+            scanRisk = worst;
+
+            long spreads = Math.min(longQuantity, shortQuantity);
+            spreadCharge = spreads > 0
+                    ? intraSpreadRate * spreads * (longScanRange / longQuantity + shortScanRange / shortQuantity) / 2
+                    : 0;
+        }
+
+        double risk() {
+            return scanRisk + spreadCharge;
+        }
+
+        boolean isEmpty() {
+            return longQuantity == 0 && shortQuantity == 0;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.future_sur_taux.margin;
+
+import com.example.future_sur_taux.domain.Future;
+
+import java.math.BigDecimal;
+
+/**
+ * Tableau de scénarios (style SPAN) d'un contrat : perte d'une position longue d'un lot
+ * pour chacun des 16 scénarios de variation de prix.
+ *
+ * La fourchette de variation (price scan range) est la marge forfaitaire du contrat :
+ * contractValue × percentageMargin / 100. Les futures n'ayant pas de sensibilité à la volatilité,
+ * les paires de scénarios « vol haut / vol bas » sont identiques, comme dans SPAN.
+ */
+public record ContractRiskArray(long futureId, long underlyingId, double priceScanRange, double[] losses) {
+
+    public static final int SCENARIOS = 16;
+
+    // Fraction de la fourchette appliquée au prix, scénario par scénario
+    private static final double[] PRICE_MOVES = {
+            0, 0,
+            1.0 / 3, 1.0 / 3, -1.0 / 3, -1.0 / 3,
+            2.0 / 3, 2.0 / 3, -2.0 / 3, -2.0 / 3,
+            1, 1, -1, -1,
+            3, -3
+    };
+
+    // Les scénarios extrêmes ne sont couverts qu'à 35 %
+    private static final double[] COVERAGE = {
+            1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 0.35, 0.35
+    };
+
+    /** Id de regroupement pour les futures sans sous-jacent (chacun forme son propre groupe). */
+    private static final long NO_UNDERLYING = Long.MIN_VALUE;
+
+    public static ContractRiskArray of(Future future) {
+        double psr = 0;
+        BigDecimal contractValue = future.getContractValue();
+        BigDecimal percentageMargin = future.getPercentageMargin();
+        if (contractValue != null && percentageMargin != null) {
+            psr = contractValue.abs().doubleValue() * percentageMargin.doubleValue() / 100.0;
+        }
+
+        double[] losses = new double[SCENARIOS];
+        for (int s = 0; s < SCENARIOS; s++) {
+            // Position longue : une hausse de prix est un gain, donc une perte négative
+            losses[s] = -PRICE_MOVES[s] * psr * COVERAGE[s];
+        }
+
+        long underlyingId = future.getUnderlying() != null && future.getUnderlying().getId() != null
+                ? future.getUnderlying().getId()
+                : NO_UNDERLYING + future.getId();
+        return new ContractRiskArray(future.getId(), underlyingId, psr, losses);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.future_sur_taux.margin;
+
+import com.example.future_sur_taux.dto.AccountMarginDTO;
+import com.example.future_sur_taux.tenant.TenantScoped;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moteur de marge initiale de portefeuille, en mémoire, mis à jour position par position.
+ *
+ * Chaque compte est verrouillé indépendamment : des mises à jour sur des comptes différents
+ * ne se bloquent pas. L'index détenteurs (future → comptes) permet de ne rejouer que les comptes
+ * concernés quand un contrat est revalorisé. Comptes et détenteurs sont propres à chaque tenant.
+ */
+@Component
+public class PortfolioMarginEngine {
+
+    private final TenantScoped<Book> books = new TenantScoped<>(Book::new);
+
+    // Charge par spread entre échéances, en fraction de la fourchette moyenne
+    @Value("${margin.intra-spread-rate:0.25}")
+    private double intraSpreadRate;
+
+    // Crédit entre sous-jacents de sens opposés, en fraction du plus petit risque
+    @Value("${margin.inter-commodity-credit-rate:0.30}")
+    private double interCommodityCreditRate;
+
+    public AccountMarginDTO applyPosition(String accountId, ContractRiskArray contract, long quantity) {
+        Book book = books.get();
+        AccountMarginState state = book.accounts.computeIfAbsent(accountId, AccountMarginState::new);
+        state.apply(contract, quantity, intraSpreadRate);
+
+        if (quantity != 0) {
+            book.holders.computeIfAbsent(contract.futureId(), id -> ConcurrentHashMap.newKeySet()).add(accountId);
+        } else {
+            Set<String> accountIds = book.holders.get(contract.futureId());
+            if (accountIds != null) accountIds.remove(accountId);
+        }
+        return state.toMargin(interCommodityCreditRate);
+    }
+
+    public void onContractRepriced(ContractRiskArray contract) {
+        Book book = books.get();
+        Set<String> accountIds = book.holders.get(contract.futureId());
+        if (accountIds == null) return;
+        for (String accountId : accountIds) {
+            AccountMarginState state = book.accounts.get(accountId);
+            if (state != null) state.reprice(contract, intraSpreadRate);
+        }
+    }
+
+    public AccountMarginDTO margin(String accountId) {
+        AccountMarginState state = books.get().accounts.get(accountId);
+        return state != null
+                ? state.toMargin(interCommodityCreditRate)
+                : new AccountMarginState(accountId).toMargin(interCommodityCreditRate);
+    }
+
+    public int accountCount() {
+        return books.get().accounts.size();
+    }
+
+    /** Vide l'état du tenant courant. */
+    public void clear() {
+        Book book = books.get();
+        book.accounts.clear();
+        book.holders.clear();
+    }
+
+    private static final class Book {
+        final Map<String, AccountMarginState> accounts = new ConcurrentHashMap<>();
+        final Map<Long, Set<String>> holders = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.future_sur_taux.pricing;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prix clean historiques d'un ensemble d'obligations, lus « à date » : le prix retenu pour un jour
+ * est le dernier coté ce jour-là ou avant. Instance immuable, partageable entre threads.
+ */
+public final class BondPriceHistory {
+
+    private final Map<Long, Series> series;
+
+    private BondPriceHistory(Map<Long, Series> series) {
+        this.series = series;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return null si aucun prix n'est connu à cette date
+     */
+    public BigDecimal asOf(Long bondId, LocalDate date) {
+        Series s = bondId != null ? series.get(bondId) : null;
+        if (s == null) return null;
+        int i = Arrays.binarySearch(s.days(), date.toEpochDay());
+        if (i < 0) i = -i - 2; // dernier jour coté avant la date
+        return i >= 0 ? s.prices()[i] : null;
+    }
+
+    public int bondCount() {
+        return series.size();
+    }
+
+    public static final class Builder {
+
+        private final Map<Long, List<Point>> points = new HashMap<>();
+
+        public Builder add(long bondId, LocalDate date, BigDecimal cleanPrice) {
+            if (date != null && cleanPrice != null) {
+                points.computeIfAbsent(bondId, id -> new ArrayList<>()).add(new Point(date.toEpochDay(), cleanPrice));
+            }
+            return this;
+        }
+
+        public BondPriceHistory build() {
+            Map<Long, Series> series = new HashMap<>(points.size() * 2);
+            points.forEach((bondId, list) -> {
+                list.sort(Comparator.comparingLong(Point::day));
+                long[] days = new long[list.size()];
+                BigDecimal[] prices = new BigDecimal[list.size()];
+                for (int i = 0; i < days.length; i++) {
+                    days[i] = list.get(i).day();
+                    prices[i] = list.get(i).price();
+                }
+                series.put(bondId, new Series(days, prices));
+            });
+            return new BondPriceHistory(series);
+        }
+    }
+
+    private record Point(long day, BigDecimal price) {
+    }
+
+    private record Series(long[] days, BigDecimal[] prices) {
+    }
+}
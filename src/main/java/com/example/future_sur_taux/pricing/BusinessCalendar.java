@@ -0,0 +1,34 @@
+package com.example.future_sur_taux.pricing;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Calendrier de jours ouvrés : week-ends + jours fériés déclarés pour un calendarId.
+ */
+public final class BusinessCalendar {
+
+    public static final String DEFAULT_ID = "DEFAULT";
+
+    private final String id;
+    private final Set<LocalDate> holidays;
+
+    public BusinessCalendar(String id, Set<LocalDate> holidays) {
+        this.id = id != null ? id : DEFAULT_ID;
+        this.holidays = holidays != null ? Set.copyOf(holidays) : Set.of();
+    }
+
+    public static BusinessCalendar weekendsOnly() {
+        return new BusinessCalendar(DEFAULT_ID, Set.of());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public boolean isBusinessDay(LocalDate date) {
+        DayOfWeek dow = date.getDayOfWeek();
+        return dow != DayOfWeek.SATURDAY && dow != DayOfWeek.SUNDAY && !holidays.contains(date);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.future_sur_taux.pricing;
+
+/**
+ * Échéancier d'une obligation à taux variable, exprimé en fractions d'année depuis la date de valeur.
+ *
+ * Le coupon i vaut nominal × (fixing + spread) × accruals[i] ; le fixing de la première période
+ * est connu (firstFixing), les suivants sont fixés sur la trajectoire au début de leur période.
+ * Le nominal est remboursé au dernier flux. Les flux payés jusqu'à deliveryTime (livraison du
+ * future) sont isolés pour le prix à terme.
+ */
+public record FloatingRateSchedule(double[] times, double[] accruals, double nominal, double spread,
+                                   double firstFixing, double deliveryTime) {
+
+    public int size() {
+        return times.length;
+    }
+}
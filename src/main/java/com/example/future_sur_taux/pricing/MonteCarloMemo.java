@@ -0,0 +1,34 @@
+package com.example.future_sur_taux.pricing;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Résultats Monte Carlo réutilisés le temps d'un lot : les futures d'une même obligation, de même
+ * échéance et valorisés avec le même contexte partagent une seule simulation (la graine ne dépend
+ * que de l'obligation, le résultat est identique). À créer pour chaque lot, jamais conservé
+ * d'un lot à l'autre : l'obligation (indexRate, coupons) peut avoir changé entre-temps.
+ */
+public final class MonteCarloMemo {
+
+    private final Map<Key, MonteCarloResult> results = new ConcurrentHashMap<>();
+
+    /**
+     * @param context contexte partagé du lot (comparé par identité, il porte la date de valeur)
+     */
+    public MonteCarloResult get(Long bondId, LocalDate maturity, PricingContext context, int paths,
+                                Supplier<MonteCarloResult> simulation) {
+        if (bondId == null) return simulation.get();
+        // Un résultat null (pas d'échéancier) n'est pas mémorisé : il est immédiat à recalculer
+        return results.computeIfAbsent(new Key(bondId, maturity, context, paths), k -> simulation.get());
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    private record Key(Long bondId, LocalDate maturity, PricingContext context, int paths) {
+    }
+}
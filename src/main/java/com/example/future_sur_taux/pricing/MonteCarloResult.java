@@ -0,0 +1,21 @@
+package com.example.future_sur_taux.pricing;
+
+/**
+ * Prix Monte Carlo d'une obligation à taux variable et diagnostics de convergence.
+ *
+ * @param price               valeur actuelle (coupon couru inclus) après variable de contrôle
+ * @param standardError       erreur type de price
+ * @param confidence95        demi-largeur de l'intervalle de confiance à 95 %
+ * @param relativeError       standardError / |price|
+ * @param pvBeforeDelivery    valeur des flux payés jusqu'à la livraison du future
+ * @param forwardPrice        prix à terme à la livraison : (price - pvBeforeDelivery) / P(0, T)
+ * @param paths               nombre de trajectoires (paires antithétiques × 2)
+ * @param controlBeta         coefficient estimé de la variable de contrôle
+ * @param varianceReduction   variance Monte Carlo brute / variance obtenue, à nombre de trajectoires égal
+ * @param converged           relativeError sous le seuil pricing.monte-carlo.target-relative-error
+ * @param elapsedMillis       durée du calcul
+ */
+public record MonteCarloResult(double price, double standardError, double confidence95, double relativeError,
+                               double pvBeforeDelivery, double forwardPrice, long paths, double controlBeta,
+                               double varianceReduction, boolean converged, long elapsedMillis) {
+}
@@ -0,0 +1,87 @@
+package com.example.future_sur_taux.pricing;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Un mois de l'historique des prix théoriques pour un lot de futures : une ligne par future,
+ * une colonne par jour du mois (ligne future_price_history). Seuls les jours compris dans la
+ * plage du backfill sont recalculés ; chaque date remplit sa propre colonne, les dates peuvent
+ * donc être valorisées en parallèle sans synchronisation.
+ */
+public final class PriceHistoryMonth {
+
+    private final YearMonth month;
+    private final LocalDate firstDay;
+    private final LocalDate lastDay;
+    private final double[][] prices;
+
+    public PriceHistoryMonth(YearMonth month, LocalDate from, LocalDate to, int futures) {
+        this.month = month;
+        this.firstDay = month.atDay(1).isBefore(from) ? from : month.atDay(1);
+        this.lastDay = month.atEndOfMonth().isAfter(to) ? to : month.atEndOfMonth();
+        this.prices = new double[futures][month.lengthOfMonth()];
+        for (double[] row : prices) Arrays.fill(row, Double.NaN);
+    }
+
+    /**
+     * Mois touchés par [from ; to], dans l'ordre.
+     */
+    public static List<YearMonth> monthsBetween(LocalDate from, LocalDate to) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth m = YearMonth.from(from); !m.isAfter(YearMonth.from(to)); m = m.plusMonths(1)) {
+            months.add(m);
+        }
+        return months;
+    }
+
+    public LocalDate periodStart() {
+        return month.atDay(1);
+    }
+
+    /** Premier jour recalculé (début du mois ou début de la plage). */
+    public LocalDate firstDay() {
+        return firstDay;
+    }
+
+    /** Dernier jour recalculé (fin du mois ou fin de la plage). */
+    public LocalDate lastDay() {
+        return lastDay;
+    }
+
+    public int futureCount() {
+        return prices.length;
+    }
+
+    public void set(int future, LocalDate day, double price) {
+        prices[future][day.getDayOfMonth() - 1] = price;
+    }
+
+    /**
+     * Nombre de jours valorisés pour ce future dans ce passage.
+     */
+    public int count(int future) {
+        int n = 0;
+        for (double price : prices[future]) if (!Double.isNaN(price)) n++;
+        return n;
+    }
+
+    /**
+     * Ligne à écrire : les jours valorisés dans ce passage remplacent ceux de la ligne existante,
+     * les autres (hors plage, ou sans prix cette fois) gardent leur valeur. null = pas de prix.
+     *
+     * @param existing ligne déjà en base (null si aucune)
+     */
+    public Double[] mergedWith(int future, Double[] existing) {
+        Double[] merged = new Double[prices[future].length];
+        for (int d = 0; d < merged.length; d++) {
+            double price = prices[future][d];
+            if (!Double.isNaN(price)) merged[d] = price;
+            else if (existing != null && d < existing.length) merged[d] = existing[d];
+        }
+        return merged;
+    }
+}
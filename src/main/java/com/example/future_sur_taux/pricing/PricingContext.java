@@ -0,0 +1,142 @@
+package com.example.future_sur_taux.pricing;
+
+import com.example.future_sur_taux.domain.enumeration.DayBase;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Contexte de valorisation : date de valeur, base de calcul (DayBase) et calendrier ouvré.
+ *
+ * Les fractions d'année et le nombre cumulé de jours ouvrés sont précalculés une fois,
+ * par jour, sur la fenêtre [date de valeur - lookback ; date de valeur + horizon] :
+ * toutes les obligations et futures d'un même lot relisent ces tables au lieu de recalculer.
+ * Les dates hors fenêtre sont calculées directement. Instance immuable, partageable entre threads.
+ */
+public final class PricingContext {
+
+    private final LocalDate valuationDate;
+    private final DayBase dayBase;
+    private final BusinessCalendar calendar;
+
+    private final long originEpochDay;     // premier jour de la fenêtre
+    private final long valuationEpochDay;
+    private final double[] yearsFromValuation;  // fraction d'année signée depuis la date de valeur
+    private final int[] businessDaysFromOrigin; // jours ouvrés cumulés dans ]origin ; jour]
+
+    public PricingContext(LocalDate valuationDate, DayBase dayBase, BusinessCalendar calendar,
+                          int lookbackDays, int horizonDays) {
+        this.valuationDate = valuationDate;
+        this.dayBase = dayBase != null ? dayBase : DayBase.DAY_BASE_365;
+        this.calendar = calendar != null ? calendar : BusinessCalendar.weekendsOnly();
+        this.valuationEpochDay = valuationDate.toEpochDay();
+        this.originEpochDay = valuationEpochDay - lookbackDays;
+
+        int length = lookbackDays + horizonDays + 1;
+        this.businessDaysFromOrigin = new int[length];
+        this.yearsFromValuation = new double[length];
+
+        double[] cumulative = new double[length];
+        LocalDate day = LocalDate.ofEpochDay(originEpochDay);
+        for (int i = 1; i < length; i++) {
+            LocalDate previous = day;
+            day = day.plusDays(1);
+            businessDaysFromOrigin[i] = businessDaysFromOrigin[i - 1] + (this.calendar.isBusinessDay(day) ? 1 : 0);
+            cumulative[i] = cumulative[i - 1] + dailyIncrement(previous, day);
+        }
+        double atValuation = cumulative[lookbackDays];
+        for (int i = 0; i < length; i++) {
+            yearsFromValuation[i] = cumulative[i] - atValuation;
+        }
+    }
+
+    public LocalDate getValuationDate() {
+        return valuationDate;
+    }
+
+    public DayBase getDayBase() {
+        return dayBase;
+    }
+
+    public BusinessCalendar getCalendar() {
+        return calendar;
+    }
+
+    /**
+     * Fraction d'année entre la date de valeur et la date donnée (négative si antérieure).
+     */
+    public double yearFraction(LocalDate date) {
+        int index = indexOf(date);
+        return index >= 0 ? yearsFromValuation[index] : computeYearFraction(valuationDate, date);
+    }
+
+    /**
+     * Fraction d'année entre deux dates quelconques selon la base du contexte.
+     */
+    public double yearFraction(LocalDate from, LocalDate to) {
+        return yearFraction(to) - yearFraction(from);
+    }
+
+    /**
+     * Nombre de jours ouvrés dans ]from ; to] (négatif si to précède from).
+     */
+    public int businessDaysBetween(LocalDate from, LocalDate to) {
+        int i = indexOf(from);
+        int j = indexOf(to);
+        if (i >= 0 && j >= 0) return businessDaysFromOrigin[j] - businessDaysFromOrigin[i];
+        return countBusinessDays(from, to);
+    }
+
+    public boolean isBusinessDay(LocalDate date) {
+        return calendar.isBusinessDay(date);
+    }
+
+    private int indexOf(LocalDate date) {
+        long offset = date.toEpochDay() - originEpochDay;
+        return offset >= 0 && offset < yearsFromValuation.length ? (int) offset : -1;
+    }
+
+    /** Contribution du jour ]previous ; day] à la fraction d'année. */
+    private double dailyIncrement(LocalDate previous, LocalDate day) {
+        switch (dayBase) {
+            case REAL_BASE:
+                return 1.0 / previous.lengthOfYear();
+            case DAY_BASE_252:
+                return calendar.isBusinessDay(day) ? 1.0 / 252 : 0.0;
+            default:
+                return 1.0 / dayBase.getValue();
+        }
+    }
+
+    private double computeYearFraction(LocalDate from, LocalDate to) {
+        switch (dayBase) {
+            case REAL_BASE:
+                return actualActual(from, to);
+            case DAY_BASE_252:
+                return countBusinessDays(from, to) / 252.0;
+            default:
+                return (double) ChronoUnit.DAYS.between(from, to) / dayBase.getValue();
+        }
+    }
+
+    private static double actualActual(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) return -actualActual(to, from);
+        double years = 0;
+        LocalDate cursor = from;
+        while (cursor.getYear() < to.getYear()) {
+            LocalDate nextYear = LocalDate.of(cursor.getYear() + 1, 1, 1);
+            years += (double) ChronoUnit.DAYS.between(cursor, nextYear) / cursor.lengthOfYear();
+            cursor = nextYear;
+        }
+        return years + (double) ChronoUnit.DAYS.between(cursor, to) / cursor.lengthOfYear();
+    }
+
+    private int countBusinessDays(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) return -countBusinessDays(to, from);
+        int count = 0;
+        for (LocalDate d = from.plusDays(1); !d.isAfter(to); d = d.plusDays(1)) {
+            if (calendar.isBusinessDay(d)) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.future_sur_taux.pricing;
+
+import com.example.future_sur_taux.domain.Bond;
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.domain.enumeration.DayBase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fournit les PricingContext partagés, un par (date de valeur, base, calendrier).
+ */
+@Component
+@RequiredArgsConstructor
+public class PricingContextFactory {
+
+    private final PricingProperties properties;
+
+    private final Map<ContextKey, PricingContext> contexts = new ConcurrentHashMap<>();
+    private final Map<String, BusinessCalendar> calendars = new ConcurrentHashMap<>();
+
+    /**
+     * Contexte pour valoriser un future sur une obligation : base de l'obligation
+     * (ou base par défaut) et calendrier du future.
+     */
+    public PricingContext contextFor(LocalDate valuationDate, Future future, Bond bond) {
+        DayBase dayBase = bond != null && bond.getDayBase() != null ? bond.getDayBase() : properties.getDefaultDayBase();
+        String calendarId = future != null ? future.getCalendarId() : null;
+        return contextFor(valuationDate, dayBase, calendarId);
+    }
+
+    public PricingContext contextFor(LocalDate valuationDate, DayBase dayBase, String calendarId) {
+        DayBase base = dayBase != null ? dayBase : properties.getDefaultDayBase();
+        String calendar = calendarId != null ? calendarId : BusinessCalendar.DEFAULT_ID;
+        ContextKey key = new ContextKey(valuationDate, base, calendar);
+
+        PricingContext context = contexts.get(key);
+        if (context != null) return context;
+
+        // Les contextes sont immuables : un éventuel calcul en double est sans conséquence
+        if (contexts.size() >= properties.getMaxCachedContexts()) contexts.clear();
+        return contexts.computeIfAbsent(key, k -> newContext(k.valuationDate(), k.dayBase(), k.calendarId()));
+    }
+
+    /**
+     * Contexte hors cache, pour les traitements qui parcourent de nombreuses dates de valeur
+     * (backfill) et videraient sinon le cache partagé.
+     */
+    public PricingContext newContext(LocalDate valuationDate, DayBase dayBase, String calendarId) {
+        return new PricingContext(valuationDate,
+                dayBase != null ? dayBase : properties.getDefaultDayBase(),
+                calendar(calendarId != null ? calendarId : BusinessCalendar.DEFAULT_ID),
+                properties.getLookbackDays(), properties.getHorizonYears() * 366);
+    }
+
+    private BusinessCalendar calendar(String calendarId) {
+        return calendars.computeIfAbsent(calendarId, id -> {
+            List<LocalDate> holidays = properties.getCalendars().get(id);
+            return new BusinessCalendar(id, holidays != null ? new HashSet<>(holidays) : null);
+        });
+    }
+
+    private record ContextKey(LocalDate valuationDate, DayBase dayBase, String calendarId) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.future_sur_taux.pricing;
+
+import com.example.future_sur_taux.domain.enumeration.DayBase;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "pricing")
+public class PricingProperties {
+
+    // Base utilisée quand l'obligation n'en précise pas
+    private DayBase defaultDayBase = DayBase.DAY_BASE_365;
+
+    // Fenêtre des tables précalculées autour de la date de valeur
+    private int lookbackDays = 400;
+    private int horizonYears = 40;
+
+    // Nombre de contextes (date, base, calendrier) gardés en cache
+    private int maxCachedContexts = 64;
+
+    // Jours fériés par calendarId (Future.calendarId)
+    private Map<String, List<LocalDate>> calendars = new HashMap<>();
+
+    // Monte Carlo des obligations à taux variable
+    private MonteCarlo monteCarlo = new MonteCarlo();
+
+    // Valorisation hypothétique par lot (/api/pricing/what-if)
+    private WhatIf whatIf = new WhatIf();
+
+    // Reconstitution de l'historique des prix théoriques (/api/pricing/backfill)
+    private Backfill backfill = new Backfill();
+
+    @Data
+    public static class MonteCarlo {
+        private int paths = 100_000;           // diagnostics de convergence
+        private int batchPaths = 10_000;       // création et revalorisation du carnet
+        private int batchSize = 1024;          // paires antithétiques par lot
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private long seed = 20_240_601L;
+        private double meanReversion = 0.10;   // kappa de Vasicek
+        private double volatility = 0.01;      // sigma absolue du taux court
+        private Double longTermRate;           // theta ; null = fixing courant de l'indice
+        private double defaultShortRate = 0.03; // si l'obligation n'a pas d'indexRate
+        private double targetRelativeError = 1e-4;
+    }
+
+    @Data
+    public static class WhatIf {
+        private int maxSpecs = 20_000;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private long referenceTtlMs = 60_000;      // durée de réutilisation d'une obligation chargée
+        private int maxCachedReferences = 10_000;  // par tenant
+        private int monteCarloPaths = 2_000;       // par (obligation à taux variable, échéance)
+    }
+
+    @Data
+    public static class Backfill {
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int chunkSize = 20_000;         // futures chargés en mémoire à la fois
+        private int monteCarloPaths = 5_000;    // par future et par date (taux variables)
+        private int maxDays = 3_660;
+    }
+}
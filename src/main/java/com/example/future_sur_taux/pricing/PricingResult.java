@@ -0,0 +1,21 @@
+package com.example.future_sur_taux.pricing;
+
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.tenant.TenantContext;
+
+import java.math.BigDecimal;
+
+/**
+ * Champs calculés d'un future, à persister par {@link PricingWriteBehind} dans le schéma du tenant.
+ */
+public record PricingResult(String tenant,
+                            long futureId,
+                            BigDecimal theoreticalPrice,
+                            BigDecimal contractValue,
+                            BigDecimal initialMarginAmount) {
+
+    public static PricingResult of(Future future) {
+        return new PricingResult(TenantContext.current(), future.getId(), future.getTheoreticalPrice(),
+                future.getContractValue(), future.getInitialMarginAmount());
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.future_sur_taux.pricing;
+
+import com.example.future_sur_taux.tenant.TenantRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Écriture différée des champs calculés (theoreticalPrice, contractValue, initialMarginAmount).
+ *
+ * Les revalorisations déposent leurs résultats dans une file bornée ; un thread unique les
+ * regroupe par future (seul le dernier résultat d'un id est écrit) et les persiste en lots JDBC,
+ * un par tenant, dès que le lot est plein ou que l'intervalle est écoulé. File pleine : le producteur attend
+ * (contre-pression). Le lot d'un tenant en échec est conservé et retenté avec un délai croissant ;
+ * pendant ce délai ses résultats continuent d'être regroupés mais ne comptent pas dans la taille
+ * de lot, la file reste vidée et les autres tenants écrits. À l'arrêt, la file
+ * est vidée et écrite avant la fermeture de la source de données ; les lots en échec sont
+ * retentés jusqu'à shutdown-timeout-ms, au-delà les résultats restants sont signalés en erreur.
+ *
+ * Un compteur par tenant suit les résultats déposés et pas encore écrits : {@link #awaitFlushed}
+ * permet de relire la base (reconstruction de l'instantané) sans revenir à des prix périmés.
+ */
+@Slf4j
+@Component
+public class PricingWriteBehind implements SmartLifecycle {
+
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 10_000;
+    private static final long JOIN_MARGIN_MILLIS = 5_000;
+
+    private static final String UPDATE_SQL =
+            "update future set theoretical_price = ?, contract_value = ?, initial_margin_amount = ? where id = ?";
+
+    private final TenantRegistry tenantRegistry;
+    private final BlockingQueue<PricingResult> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    // Résultats déposés et non encore écrits, par tenant
+    private final Map<String, AtomicLong> outstanding = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private volatile long stopDeadline = Long.MAX_VALUE;
+    private Thread flusher;
+
+    public PricingWriteBehind(TenantRegistry tenantRegistry,
+                              @Value("${pricing.write-behind.capacity:50000}") int capacity,
+                              @Value("${pricing.write-behind.batch-size:500}") int batchSize,
+                              @Value("${pricing.write-behind.flush-interval-ms:200}") long flushIntervalMillis,
+                              @Value("${pricing.write-behind.offer-timeout-ms:30000}") long offerTimeoutMillis,
+                              @Value("${pricing.write-behind.shutdown-timeout-ms:30000}") long shutdownTimeoutMillis) {
+        this.tenantRegistry = tenantRegistry;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    /**
+     * Dépose un résultat ; bloque tant que la file est pleine (au plus offer-timeout-ms).
+     */
+    public void submit(PricingResult result) {
+        if (!running) throw new IllegalStateException("Write-behind des prix arrêté");
+        // Compté avant le dépôt : le flusher peut l'écrire avant le retour de offer
+        AtomicLong tenantOutstanding = outstanding(result.tenant());
+        tenantOutstanding.incrementAndGet();
+        try {
+            if (!queue.offer(result, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                tenantOutstanding.decrementAndGet();
+                throw new IllegalStateException("Write-behind des prix saturé : " + queue.size() + " résultats en attente");
+            }
+            submitted.incrementAndGet();
+        } catch (InterruptedException e) {
+            tenantOutstanding.decrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompu en attente du write-behind des prix", e);
+        }
+    }
+
+    /**
+     * Attend que tous les résultats déposés pour le tenant soient écrits en base.
+     * @return false si le délai est écoulé avant
+     */
+    public boolean awaitFlushed(String tenant, long timeoutMillis) {
+        AtomicLong tenantOutstanding = outstanding(tenant);
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (tenantOutstanding.get() > 0) {
+            if (System.currentTimeMillis() >= deadline) return false;
+            try {
+                Thread.sleep(Math.min(flushIntervalMillis, 50));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private AtomicLong outstanding(String tenant) {
+        return outstanding.computeIfAbsent(tenant, t -> new AtomicLong());
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "submitted", submitted.get(),
+                "coalesced", coalesced.get(),
+                "written", written.get(),
+                "queued", (long) queue.size());
+    }
+
+    private void runLoop() {
+        Map<String, TenantBatch> pending = new LinkedHashMap<>();
+        List<PricingResult> drained = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !pending.isEmpty()) {
+            try {
+                long deadline = System.currentTimeMillis() + flushIntervalMillis;
+                // Seuls les tenants hors attente comptent : un tenant en échec n'empêche pas de vider la file
+                int ready;
+                while ((ready = ready(pending)) < batchSize) {
+                    long wait = deadline - System.currentTimeMillis();
+                    if (wait <= 0) break;
+                    PricingResult first = queue.poll(wait, TimeUnit.MILLISECONDS);
+                    if (first == null) break;
+                    coalesce(pending, first);
+                    queue.drainTo(drained, batchSize - ready);
+                    for (PricingResult result : drained) coalesce(pending, result);
+                    drained.clear();
+                }
+            } catch (InterruptedException e) {
+                // Arrêt demandé : on termine le vidage sans attendre
+                queue.drainTo(drained);
+                for (PricingResult result : drained) coalesce(pending, result);
+                drained.clear();
+            }
+            flush(pending);
+            if (!running && !pending.isEmpty() && System.currentTimeMillis() >= stopDeadline) {
+                log.error("Arrêt : {} résultats de pricing non écrits", pending.values().stream()
+                        .mapToInt(batch -> batch.results.size()).sum());
+                return;
+            }
+        }
+    }
+
+    private static int ready(Map<String, TenantBatch> pending) {
+        long now = System.currentTimeMillis();
+        int ready = 0;
+        for (TenantBatch batch : pending.values()) {
+            if (batch.retryAt <= now) ready += batch.results.size();
+        }
+        return ready;
+    }
+
+    private void coalesce(Map<String, TenantBatch> pending, PricingResult result) {
+        TenantBatch batch = pending.computeIfAbsent(result.tenant(), t -> new TenantBatch());
+        if (batch.results.put(result.futureId(), result) != null) {
+            coalesced.incrementAndGet();
+            // Le résultat remplacé ne sera jamais écrit
+            outstanding(result.tenant()).decrementAndGet();
+        }
+    }
+
+    /**
+     * Écrit le lot de chaque tenant dont l'attente est écoulée. Un lot en échec reste en attente,
+     * avec un délai doublé à chaque échec (borné, et jamais au-delà de l'échéance d'arrêt).
+     */
+    private void flush(Map<String, TenantBatch> pending) {
+        long now = System.currentTimeMillis();
+        for (Iterator<Map.Entry<String, TenantBatch>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, TenantBatch> entry = it.next();
+            String tenant = entry.getKey();
+            TenantBatch batch = entry.getValue();
+            if (batch.retryAt > now) continue;
+
+            List<Object[]> rows = new ArrayList<>(batch.results.size());
+            for (PricingResult r : batch.results.values()) {
+                rows.add(new Object[]{r.theoreticalPrice(), r.contractValue(), r.initialMarginAmount(), r.futureId()});
+            }
+            try {
+                tenantRegistry.jdbcTemplate(tenant).batchUpdate(UPDATE_SQL, rows);
+                written.addAndGet(rows.size());
+                outstanding(tenant).addAndGet(-rows.size());
+                it.remove();
+            } catch (Exception e) {
+                batch.failures++;
+                long backoff = Math.min(flushIntervalMillis << Math.min(batch.failures, 10), MAX_RETRY_BACKOFF_MILLIS);
+                batch.retryAt = running ? now + backoff : Math.min(now + backoff, stopDeadline);
+                log.warn("Échec d'écriture de {} résultats de pricing (tenant {}, essai {}), nouvel essai dans {} ms",
+                        rows.size(), tenant, batch.failures, batch.retryAt - now, e);
+            }
+        }
+    }
+
+    /**
+     * Résultats en attente d'un tenant, par future (le dernier déposé l'emporte).
+     */
+    private static final class TenantBatch {
+        final Map<Long, PricingResult> results = new LinkedHashMap<>();
+        int failures;
+        long retryAt;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        flusher = new Thread(this::runLoop, "pricing-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        stopDeadline = System.currentTimeMillis() + shutdownTimeoutMillis;
+        running = false;
+        if (flusher == null) return;
+        flusher.interrupt();
+        try {
+            // Marge pour le dernier lot engagé juste avant l'échéance
+            flusher.join(shutdownTimeoutMillis + JOIN_MARGIN_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long unwritten = outstanding.values().stream().mapToLong(AtomicLong::get).sum();
+        log.info("Write-behind des prix arrêté : {}", stats());
+        if (flusher.isAlive() || unwritten > 0) {
+            throw new IllegalStateException("Write-behind des prix arrêté avec " + unwritten
+                    + " résultats de pricing non écrits");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Démarre avant et s'arrête après le serveur web : les requêtes en cours peuvent encore déposer.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 4096;
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.future_sur_taux.pricing;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Monte Carlo du taux court de Vasicek pour les obligations à taux variable.
+ *
+ * La simulation est exacte sur la grille des dates de paiement : (r, intégrale de r) suit une loi
+ * normale bivariée entre deux dates, aucun pas intermédiaire n'est nécessaire. Les trajectoires
+ * sont réparties en tranches, chacune avec son flux SplittableRandom obtenu par split() d'une
+ * graine unique : le résultat ne dépend ni du nombre de threads ni de l'ordonnancement.
+ *
+ * Réduction de variance : paires antithétiques (Z, -Z) et variable de contrôle égale à la somme
+ * des facteurs d'actualisation des dates de paiement, d'espérance connue (zéro-coupons analytiques).
+ * Les trajectoires d'un lot sont stockées dans des tableaux plats réutilisés d'un lot à l'autre.
+ */
+@Slf4j
+@Component
+public class ShortRateMonteCarloEngine {
+
+    // Découpage fixe, indépendant du nombre de threads (et assez fin pour équilibrer la charge)
+    private static final int CHUNKS = 64;
+
+    private final PricingProperties.MonteCarlo settings;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<PathBuffers> buffers;
+
+    public ShortRateMonteCarloEngine(PricingProperties properties) {
+        this.settings = properties.getMonteCarlo();
+        this.pool = new ForkJoinPool(Math.max(1, settings.getParallelism()));
+        int batchSize = Math.max(1, settings.getBatchSize());
+        this.buffers = ThreadLocal.withInitial(() -> new PathBuffers(batchSize));
+    }
+
+    public MonteCarloResult price(FloatingRateSchedule schedule, VasicekModel model, long seed) {
+        return price(schedule, model, seed, settings.getPaths());
+    }
+
+    public MonteCarloResult price(FloatingRateSchedule schedule, VasicekModel model, long seed, int paths) {
+        long start = System.nanoTime();
+        Steps steps = new Steps(schedule, model);
+
+        long pairs = Math.max(2, (paths + 1L) / 2);
+        int chunks = (int) Math.min(pairs, CHUNKS);
+        SplittableRandom root = new SplittableRandom(seed);
+
+        List<Callable<Accumulator>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            SplittableRandom stream = root.split();
+            long count = pairs / chunks + (c < pairs % chunks ? 1 : 0);
+            tasks.add(() -> simulateChunk(stream, count, schedule, steps));
+        }
+
+        // Fusion dans l'ordre des tranches : résultat reproductible à graine égale
+        Accumulator total = new Accumulator();
+        try {
+            for (java.util.concurrent.Future<Accumulator> partial : pool.invokeAll(tasks)) {
+                total.merge(partial.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Monte Carlo interrompu", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec du Monte Carlo", e.getCause());
+        }
+
+        return total.toResult(steps.controlMean, model.zeroCouponPrice(schedule.deliveryTime()),
+                settings.getTargetRelativeError(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Accumulator simulateChunk(SplittableRandom random, long pairs, FloatingRateSchedule schedule, Steps steps) {
+        PathBuffers b = buffers.get();
+        Accumulator accumulator = new Accumulator();
+        for (long done = 0; done < pairs; ) {
+            int m = (int) Math.min(b.capacity, pairs - done);
+            simulateBatch(random, m, b, schedule, steps);
+            accumulator.add(b, m);
+            done += m;
+        }
+        return accumulator;
+    }
+
+    /**
+     * Simule m paires antithétiques : trajectoires [0, m) avec Z, [m, 2m) avec -Z.
+     */
+    private static void simulateBatch(SplittableRandom random, int m, PathBuffers b,
+                                      FloatingRateSchedule schedule, Steps s) {
+        int n = 2 * m;
+        double[] rate = b.rate, discount = b.discount, fixing = b.fixing;
+        double[] payoff = b.payoff, control = b.control, beforeDelivery = b.beforeDelivery;
+        double[] z1 = b.z1, z2 = b.z2;
+
+        Arrays.fill(rate, 0, n, s.shortRate);
+        Arrays.fill(discount, 0, n, 1.0);
+        Arrays.fill(fixing, 0, n, schedule.firstFixing());
+        Arrays.fill(payoff, 0, n, 0.0);
+        Arrays.fill(control, 0, n, 0.0);
+        Arrays.fill(beforeDelivery, 0, n, 0.0);
+
+        double nominal = schedule.nominal();
+        double spread = schedule.spread();
+        double theta = s.longTermRate;
+        int last = schedule.size() - 1;
+
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j < m; j++) {
+                z1[j] = random.nextGaussian();
+                z2[j] = random.nextGaussian();
+            }
+            double decay = s.decay[i], loading = s.loading[i], driftIntegral = s.driftIntegral[i];
+            double sdRate = s.sdRate[i], sdIntegral = s.sdIntegral[i], rho = s.rho[i], rhoComplement = s.rhoComplement[i];
+            double accrual = schedule.accruals()[i];
+            double principal = i == last ? nominal : 0.0;
+            boolean paidBeforeDelivery = s.beforeDelivery[i];
+            boolean refix = i < last;
+            double nextLogA = refix ? s.fixingLogA[i + 1] : 0, nextLoading = refix ? s.fixingLoading[i + 1] : 0;
+            double nextAccrual = refix ? schedule.accruals()[i + 1] : 1;
+
+            for (int j = 0; j < n; j++) {
+                int k = j < m ? j : j - m;
+                double sign = j < m ? 1.0 : -1.0;
+                double e1 = sign * z1[k];
+                double e2 = sign * (rho * z1[k] + rhoComplement * z2[k]);
+
+                double r = rate[j];
+                double integral = driftIntegral + (r - theta) * loading + sdIntegral * e2;
+                rate[j] = theta + (r - theta) * decay + sdRate * e1;
+                double df = discount[j] * Math.exp(-integral);
+                discount[j] = df;
+
+                double flow = nominal * (fixing[j] + spread) * accrual + principal;
+                payoff[j] += df * flow;
+                control[j] += df;
+                if (paidBeforeDelivery) beforeDelivery[j] += df * flow;
+
+                // Fixing de la période suivante : taux simple implicite du zéro-coupon P(t_i, t_i+1)
+                if (refix) fixing[j] = (Math.exp(nextLoading * rate[j] - nextLogA) - 1) / nextAccrual;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Constantes de transition de chaque intervalle ]t_i-1 ; t_i], calculées une fois par prix.
+     */
+    private static final class Steps {
+        final double shortRate;
+        final double longTermRate;
+        final double[] decay;
+        final double[] loading;
+        final double[] driftIntegral;
+        final double[] sdRate;
+        final double[] sdIntegral;
+        final double[] rho;
+        final double[] rhoComplement;
+        final double[] fixingLogA;
+        final double[] fixingLoading;
+        final boolean[] beforeDelivery;
+        final double controlMean;
+
+        Steps(FloatingRateSchedule schedule, VasicekModel model) {
+            int n = schedule.size();
+            double k = model.meanReversion();
+            double s2 = model.volatility() * model.volatility();
+            shortRate = model.shortRate();
+            longTermRate = model.longTermRate();
+            decay = new double[n];
+            loading = new double[n];
+            driftIntegral = new double[n];
+            sdRate = new double[n];
+            sdIntegral = new double[n];
+            rho = new double[n];
+            rhoComplement = new double[n];
+            fixingLogA = new double[n];
+            fixingLoading = new double[n];
+            beforeDelivery = new boolean[n];
+
+            double previous = 0;
+            double mean = 0;
+            for (int i = 0; i < n; i++) {
+                double t = schedule.times()[i];
+                double dt = Math.max(0, t - previous);
+                double b = model.loading(dt);
+                double e2 = Math.exp(-2 * k * dt);
+                double varRate = s2 * (1 - e2) / (2 * k);
+                double varIntegral = Math.max(0, s2 / (k * k) * (dt - 2 * b + (1 - e2) / (2 * k)));
+                double cov = s2 * b * b / 2;
+
+                decay[i] = Math.exp(-k * dt);
+                loading[i] = b;
+                driftIntegral[i] = longTermRate * dt;
+                sdRate[i] = Math.sqrt(varRate);
+                sdIntegral[i] = Math.sqrt(varIntegral);
+                rho[i] = sdRate[i] > 0 && sdIntegral[i] > 0 ? Math.max(-1, Math.min(1, cov / (sdRate[i] * sdIntegral[i]))) : 0;
+                rhoComplement[i] = Math.sqrt(1 - rho[i] * rho[i]);
+                fixingLogA[i] = model.logA(dt);
+                fixingLoading[i] = b;
+                beforeDelivery[i] = t <= schedule.deliveryTime();
+
+                mean += model.zeroCouponPrice(t);
+                previous = Math.max(previous, t);
+            }
+            controlMean = mean;
+        }
+    }
+
+    /**
+     * Tableaux plats d'un lot de paires, propres à un thread et réutilisés entre lots et entre prix.
+     */
+    private static final class PathBuffers {
+        final int capacity;
+        final double[] rate;
+        final double[] discount;
+        final double[] fixing;
+        final double[] payoff;
+        final double[] control;
+        final double[] beforeDelivery;
+        final double[] z1;
+        final double[] z2;
+
+        PathBuffers(int pairs) {
+            capacity = pairs;
+            rate = new double[2 * pairs];
+            discount = new double[2 * pairs];
+            fixing = new double[2 * pairs];
+            payoff = new double[2 * pairs];
+            control = new double[2 * pairs];
+            beforeDelivery = new double[2 * pairs];
+            z1 = new double[pairs];
+            z2 = new double[pairs];
+        }
+    }
+
+    /**
+     * Sommes par paire (moyenne des deux trajectoires antithétiques) et par trajectoire pour la variance brute.
+     */
+    private static final class Accumulator {
+        long pairs;
+        double sumY, sumY2, sumX, sumX2, sumXY, sumBefore;
+        double sumPath, sumPath2;
+
+        void add(PathBuffers b, int m) {
+            for (int j = 0; j < m; j++) {
+                double up = b.payoff[j], down = b.payoff[j + m];
+                double y = (up + down) / 2;
+                double x = (b.control[j] + b.control[j + m]) / 2;
+                sumY += y;
+                sumY2 += y * y;
+                sumX += x;
+                sumX2 += x * x;
+                sumXY += x * y;
+                sumBefore += (b.beforeDelivery[j] + b.beforeDelivery[j + m]) / 2;
+                sumPath += up + down;
+                sumPath2 += up * up + down * down;
+            }
+            pairs += m;
+        }
+
+        void merge(Accumulator other) {
+            pairs += other.pairs;
+            sumY += other.sumY;
+            sumY2 += other.sumY2;
+            sumX += other.sumX;
+            sumX2 += other.sumX2;
+            sumXY += other.sumXY;
+            sumBefore += other.sumBefore;
+            sumPath += other.sumPath;
+            sumPath2 += other.sumPath2;
+        }
+
+        MonteCarloResult toResult(double controlMean, double deliveryDiscount, double targetRelativeError, long elapsedMillis) {
+            double n = pairs;
+            double meanY = sumY / n;
+            double meanX = sumX / n;
+            double varY = Math.max(0, (sumY2 - n * meanY * meanY) / (n - 1));
+            double varX = Math.max(0, (sumX2 - n * meanX * meanX) / (n - 1));
+            double covXY = (sumXY - n * meanX * meanY) / (n - 1);
+
+            double beta = varX > 0 ? covXY / varX : 0;
+            double price = meanY - beta * (meanX - controlMean);
+            double varControlled = Math.max(0, varY - beta * covXY);
+            double standardError = Math.sqrt(varControlled / n);
+
+            double paths = 2 * n;
+            double meanPath = sumPath / paths;
+            double varCrude = Math.max(0, (sumPath2 - paths * meanPath * meanPath) / (paths - 1));
+            double varianceReduction = varControlled > 0 ? (varCrude / paths) / (varControlled / n) : 1.0;
+
+            double relativeError = price != 0 ? standardError / Math.abs(price) : 0;
+            double pvBefore = sumBefore / n;
+            double forward = (price - pvBefore) / deliveryDiscount;
+
+            return new MonteCarloResult(price, standardError, 1.96 * standardError, relativeError, pvBefore, forward,
+                    (long) paths, beta, varianceReduction, relativeError <= targetRelativeError, elapsedMillis);
+        }
+    }
+}
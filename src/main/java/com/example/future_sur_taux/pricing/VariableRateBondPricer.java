@@ -0,0 +1,104 @@
+package com.example.future_sur_taux.pricing;
+
+import com.example.future_sur_taux.domain.Bond;
+import com.example.future_sur_taux.domain.CashFlow;
+import com.example.future_sur_taux.domain.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Valorisation Monte Carlo des obligations à taux variable et des futures qui les ont pour sous-jacent.
+ *
+ * Les dates de coupon de l'obligation donnent la grille ; les montants stockés sont ignorés
+ * (ils supposent un taux figé) et recalculés sur chaque trajectoire. La marge sur l'indice est
+ * déduite du coupon courant : couponAmount annualisé / nominal - indexRate (taux décimal, 0.035 = 3,5 %).
+ */
+@Slf4j
+@Component
+public class VariableRateBondPricer {
+
+    private static final long SEED_MIX = 0x9E3779B97F4A7C15L;
+
+    private final ShortRateMonteCarloEngine engine;
+    private final PricingProperties.MonteCarlo settings;
+
+    public VariableRateBondPricer(ShortRateMonteCarloEngine engine, PricingProperties properties) {
+        this.engine = engine;
+        this.settings = properties.getMonteCarlo();
+    }
+
+    /**
+     * @return null si l'obligation n'a pas d'échéancier exploitable (pas de nominal ou plus de coupon)
+     */
+    public MonteCarloResult price(Future future, Bond bond, PricingContext context) {
+        return price(future, bond, context, 0);
+    }
+
+    /**
+     * @param paths nombre de trajectoires (0 = pricing.monte-carlo.paths)
+     */
+    public MonteCarloResult price(Future future, Bond bond, PricingContext context, int paths) {
+        FloatingRateSchedule schedule = schedule(future, bond, context);
+        if (schedule == null) return null;
+
+        double theta = settings.getLongTermRate() != null ? settings.getLongTermRate() : schedule.firstFixing();
+        VasicekModel model = new VasicekModel(schedule.firstFixing(), settings.getMeanReversion(), theta, settings.getVolatility());
+        // Graine stable par obligation : deux revalorisations du même jour donnent le même prix
+        long seed = settings.getSeed() ^ (bond.getId() != null ? bond.getId() * SEED_MIX : 0L);
+
+        MonteCarloResult result = engine.price(schedule, model, seed, paths > 0 ? paths : settings.getPaths());
+        if (!result.converged()) {
+            log.debug("Monte Carlo non convergé pour l'obligation {} : erreur relative {}", bond.getId(), result.relativeError());
+        }
+        return result;
+    }
+
+    FloatingRateSchedule schedule(Future future, Bond bond, PricingContext context) {
+        if (bond.getNominal() == null || bond.getFutureCoupons() == null) return null;
+        LocalDate valuationDate = context.getValuationDate();
+
+        List<LocalDate> dates = bond.getFutureCoupons().stream()
+                .map(CashFlow::getPaymentDate)
+                .filter(Objects::nonNull)
+                .filter(d -> !d.isBefore(valuationDate))
+                .distinct()
+                .sorted()
+                .toList();
+        if (dates.isEmpty()) return null;
+
+        int months = bond.getPeriodicity() != null ? bond.getPeriodicity().getMonths() : 0;
+        LocalDate periodStart = bond.getFutureCoupons().stream()
+                .map(CashFlow::getPaymentDate)
+                .filter(Objects::nonNull)
+                .filter(d -> d.isBefore(valuationDate))
+                .max(Comparator.naturalOrder())
+                .orElse(months > 0 ? dates.get(0).minusMonths(months) : valuationDate);
+
+        int n = dates.size();
+        double[] times = new double[n];
+        double[] accruals = new double[n];
+        for (int i = 0; i < n; i++) {
+            LocalDate date = dates.get(i);
+            times[i] = Math.max(0, context.yearFraction(date));
+            accruals[i] = context.yearFraction(i == 0 ? periodStart : dates.get(i - 1), date);
+        }
+
+        double nominal = bond.getNominal().doubleValue();
+        double fixing = bond.getIndexRate() != null ? bond.getIndexRate().doubleValue() : settings.getDefaultShortRate();
+        double spread = 0;
+        if (bond.getCouponAmount() != null && nominal > 0) {
+            double periodYears = months > 0 ? months / 12.0 : accruals[0];
+            if (periodYears > 0) spread = bond.getCouponAmount().doubleValue() / (nominal * periodYears) - fixing;
+        }
+        double deliveryTime = future != null && future.getMaturityDate() != null
+                ? Math.max(0, context.yearFraction(future.getMaturityDate()))
+                : 0;
+
+        return new FloatingRateSchedule(times, accruals, nominal, spread, fixing, deliveryTime);
+    }
+}
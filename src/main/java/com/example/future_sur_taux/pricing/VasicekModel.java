@@ -0,0 +1,37 @@
+package com.example.future_sur_taux.pricing;
+
+/**
+ * Modèle de taux court de Vasicek : dr = kappa (theta - r) dt + sigma dW.
+ *
+ * Les prix zéro-coupon analytiques servent de variable de contrôle au Monte Carlo
+ * et à calculer les fixings des périodes suivantes sur chaque trajectoire.
+ */
+public record VasicekModel(double shortRate, double meanReversion, double longTermRate, double volatility) {
+
+    public VasicekModel {
+        // kappa nul : le modèle dégénère en Ho-Lee, on garde une réversion minimale
+        if (meanReversion < 1e-6) meanReversion = 1e-6;
+    }
+
+    /** B(tau) = (1 - exp(-kappa tau)) / kappa. */
+    public double loading(double tau) {
+        return (1 - Math.exp(-meanReversion * tau)) / meanReversion;
+    }
+
+    /** ln A(tau), avec P(t, t + tau) = A(tau) exp(-B(tau) r(t)). */
+    public double logA(double tau) {
+        double b = loading(tau);
+        double s2 = volatility * volatility;
+        return (longTermRate - s2 / (2 * meanReversion * meanReversion)) * (b - tau)
+                - s2 * b * b / (4 * meanReversion);
+    }
+
+    public double zeroCouponPrice(double rate, double tau) {
+        if (tau <= 0) return 1.0;
+        return Math.exp(logA(tau) - loading(tau) * rate);
+    }
+
+    public double zeroCouponPrice(double tau) {
+        return zeroCouponPrice(shortRate, tau);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.future_sur_taux.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("future_sur_taux.FinnhubQuote")
+@Label("Cotation Finnhub")
+@Category({"Future sur taux", "Finnhub"})
+@Description("Appel HTTP de cotation pour un symbole (les appels regroupés n'en émettent pas)")
+@StackTrace(false)
+public class FinnhubQuoteEvent extends Event {
+
+    @Label("Symbole")
+    public String symbol;
+
+    @Label("Prix obtenu")
+    public boolean found;
+}
@@ -0,0 +1,108 @@
+package com.example.future_sur_taux.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Enregistrement JFR à la demande, un seul à la fois, borné en durée, en âge et en taille.
+ *
+ * Les événements applicatifs (future_sur_taux.*) s'ajoutent aux événements JDK de la configuration
+ * choisie ("default" : surcoût ~1 %, "profile" : échantillonnage plus fin, allocations comprises).
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "profiling.admin.enabled", havingValue = "true")
+public class FlightRecorderService {
+
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+
+    private Recording recording;
+    private Path lastDump;
+
+    public FlightRecorderService(@Value("${profiling.jfr.max-duration-seconds:600}") long maxDurationSeconds,
+                                 @Value("${profiling.jfr.max-size-mb:100}") long maxSizeMb) {
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    public synchronized Map<String, Object> start(String settings, Long durationSeconds) throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("Un enregistrement JFR est déjà en cours");
+        }
+        close();
+
+        Duration duration = durationSeconds != null && durationSeconds > 0
+                ? Duration.ofSeconds(Math.min(durationSeconds, maxDuration.toSeconds()))
+                : maxDuration;
+
+        recording = new Recording(Configuration.getConfiguration(settings != null ? settings : "default"));
+        recording.setName("future_sur_taux-admin");
+        recording.setToDisk(true);
+        recording.setMaxSize(maxSizeBytes);
+        recording.setMaxAge(duration);
+        recording.setDuration(duration); // arrêt automatique si personne ne l'arrête
+        recording.start();
+        log.info("Enregistrement JFR démarré ({}, {} s max)", settings, duration.toSeconds());
+        return status();
+    }
+
+    public synchronized Map<String, Object> stop() throws IOException {
+        if (recording == null) throw new IllegalStateException("Aucun enregistrement JFR");
+        if (recording.getState() == RecordingState.RUNNING) recording.stop();
+        dump();
+        log.info("Enregistrement JFR arrêté : {}", lastDump);
+        return status();
+    }
+
+    /**
+     * Fichier .jfr à télécharger : instantané si l'enregistrement tourne encore, sinon le dernier arrêté.
+     */
+    public synchronized Path download() throws IOException {
+        if (recording == null) throw new IllegalStateException("Aucun enregistrement JFR");
+        if (recording.getState() != RecordingState.CLOSED) dump();
+        if (lastDump == null) throw new IllegalStateException("Aucun fichier JFR disponible");
+        return lastDump;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording != null ? recording.getState().name() : "NONE");
+        if (recording != null) {
+            status.put("id", recording.getId());
+            status.put("startTime", recording.getStartTime());
+            status.put("duration", recording.getDuration() != null ? recording.getDuration().toSeconds() : null);
+            status.put("maxSizeBytes", recording.getMaxSize());
+        }
+        status.put("file", lastDump != null ? lastDump.toString() : null);
+        return status;
+    }
+
+    private void dump() throws IOException {
+        Path target = Files.createTempFile("future_sur_taux-", ".jfr");
+        recording.dump(target);
+        if (lastDump != null) Files.deleteIfExists(lastDump);
+        lastDump = target;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording == null) return;
+        recording.close();
+        recording = null;
+    }
+}
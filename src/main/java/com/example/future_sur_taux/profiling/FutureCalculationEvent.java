@@ -0,0 +1,28 @@
+package com.example.future_sur_taux.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("future_sur_taux.FutureCalculation")
+@Label("Calcul d'un future")
+@Category({"Future sur taux", "Pricing"})
+@Description("FutureCalculationService.calculateAll : prix théorique, valeur du contrat, marge initiale")
+@StackTrace(false)
+public class FutureCalculationEvent extends Event {
+
+    @Label("Symbole")
+    public String symbol;
+
+    @Label("Id du future")
+    public long futureId;
+
+    @Label("Id de l'obligation")
+    public long bondId;
+
+    @Label("Type de taux")
+    public String rateType;
+}
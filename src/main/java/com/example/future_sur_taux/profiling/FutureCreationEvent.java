@@ -0,0 +1,23 @@
+package com.example.future_sur_taux.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("future_sur_taux.FutureCreation")
+@Label("Création de future")
+@Category({"Future sur taux", "Service"})
+@Description("FutureService.createFutureFromDTO : lecture du sous-jacent, calculs, sauvegarde")
+public class FutureCreationEvent extends Event {
+
+    @Label("Symbole")
+    public String symbol;
+
+    @Label("Id du future")
+    public long futureId;
+
+    @Label("Id du sous-jacent")
+    public long underlyingId;
+}
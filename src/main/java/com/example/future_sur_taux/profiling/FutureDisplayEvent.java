@@ -0,0 +1,24 @@
+package com.example.future_sur_taux.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("future_sur_taux.FutureDisplay")
+@Label("Affichage des futures")
+@Category({"Future sur taux", "Service"})
+@Description("FutureService.getAllFuturesForDisplay, attente d'un calcul partagé comprise")
+public class FutureDisplayEvent extends Event {
+
+    @Label("Lignes")
+    public int rows;
+
+    @Label("Symboles cotés")
+    public int symbols;
+
+    @Label("Calcul exécuté")
+    @Description("false : résultat obtenu d'un appel concurrent ou réutilisé")
+    public boolean computed;
+}
@@ -0,0 +1,150 @@
+package com.example.future_sur_taux.quote;
+
+import com.example.future_sur_taux.repository.FutureRepository;
+import com.example.future_sur_taux.service.FinnhubService;
+import com.example.future_sur_taux.tenant.TenantRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Rafraîchissement des cotations par une seule instance du cluster.
+ *
+ * L'instance qui obtient le verrou consultatif Postgres (pg_try_advisory_lock, niveau session)
+ * est leader tant que sa connexion dédiée reste ouverte : si elle tombe, Postgres libère le verrou
+ * et une autre instance le prend au cycle suivant. Le leader appelle Finnhub une fois par symbole,
+ * écrit market_quote puis publie un NOTIFY ; le volume d'appels externes ne dépend pas du nombre
+ * d'instances.
+ *
+ * Les cotations sont des données de marché communes à tous les tenants : les symboles vivants de
+ * chaque schéma sont réunis et market_quote reste dans le schéma par défaut.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "quotes.cluster.enabled", havingValue = "true")
+public class QuoteLeaderService {
+
+    private static final String UPSERT_SQL =
+            "insert into market_quote (symbol, price, updated_at) values (?, ?, now()) " +
+            "on conflict (symbol) do update set price = excluded.price, updated_at = excluded.updated_at";
+
+    private final FutureRepository futureRepository;
+    private final FinnhubService finnhubService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final TenantRegistry tenantRegistry;
+    private final long lockKey;
+
+    private Connection lockConnection;
+    private volatile boolean leader;
+
+    public QuoteLeaderService(FutureRepository futureRepository,
+                              FinnhubService finnhubService,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              DataSourceProperties dataSourceProperties,
+                              TenantRegistry tenantRegistry,
+                              @Value("${quotes.cluster.lock-key:7342001}") long lockKey) {
+        this.futureRepository = futureRepository;
+        this.finnhubService = finnhubService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.tenantRegistry = tenantRegistry;
+        this.lockKey = lockKey;
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    @Scheduled(fixedDelayString = "${quotes.cluster.refresh-interval-ms:15000}")
+    public synchronized void refreshIfLeader() {
+        if (!ensureLeadership()) return;
+
+        LocalDate today = LocalDate.now();
+        Set<String> liveSymbols = new TreeSet<>();
+        tenantRegistry.forEachTenant(() -> liveSymbols.addAll(futureRepository.findLiveSymbols(today)));
+        String[] symbols = liveSymbols.toArray(String[]::new);
+        if (symbols.length == 0) return;
+        Map<String, BigDecimal> prices = finnhubService.getMarketPrices(symbols);
+
+        List<Object[]> rows = new ArrayList<>(prices.size());
+        prices.forEach((symbol, price) -> {
+            // Un échec ponctuel de Finnhub ne doit pas effacer la dernière cotation connue
+            if (price != null) rows.add(new Object[]{symbol, price});
+        });
+        if (rows.isEmpty()) return;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            // Délivré aux écouteurs au commit
+            jdbcTemplate.query("select pg_notify(?, ?)", (RowCallbackHandler) rs -> { },
+                    QuoteReplicaCache.CHANNEL, String.valueOf(rows.size()));
+        });
+        log.debug("{} cotations publiées", rows.size());
+    }
+
+    private boolean ensureLeadership() {
+        try {
+            if (lockConnection == null || !lockConnection.isValid(2)) {
+                closeQuietly();
+                leader = false;
+                lockConnection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                        dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+            }
+            if (!leader) {
+                try (PreparedStatement statement = lockConnection.prepareStatement("select pg_try_advisory_lock(?)")) {
+                    statement.setLong(1, lockKey);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        leader = rs.next() && rs.getBoolean(1);
+                    }
+                }
+                if (leader) log.info("Instance leader pour le rafraîchissement des cotations");
+            }
+        } catch (SQLException e) {
+            log.warn("Élection du leader des cotations impossible", e);
+            closeQuietly();
+            leader = false;
+        }
+        return leader;
+    }
+
+    @PreDestroy
+    public synchronized void release() {
+        // Fermer la session libère le verrou consultatif
+        closeQuietly();
+        leader = false;
+    }
+
+    private void closeQuietly() {
+        if (lockConnection == null) return;
+        try {
+            lockConnection.close();
+        } catch (SQLException ignored) {
+            // connexion déjà perdue
+        }
+        lockConnection = null;
+    }
+}
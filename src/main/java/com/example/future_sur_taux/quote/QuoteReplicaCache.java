@@ -0,0 +1,165 @@
+package com.example.future_sur_taux.quote;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Réplique locale de la table market_quote, présente sur chaque instance en mode cluster.
+ *
+ * Une connexion dédiée (hors pool) fait LISTEN sur le canal de notification ; à chaque NOTIFY
+ * du leader, seules les lignes modifiées depuis la dernière lecture sont rechargées. Le
+ * chargement complet initial et la relecture après reconnexion couvrent les notifications perdues.
+ *
+ * updated_at vaut now(), l'heure de début de la transaction du leader : une transaction validée
+ * tard (recouvrement lors d'une bascule) écrit des lignes plus anciennes que le dernier
+ * updated_at lu. Chaque lecture repart donc de lastSeen moins une fenêtre de recouvrement
+ * (quotes.cluster.watermark-overlap-ms).
+ *
+ * La même connexion écoute les canaux enregistrés par d'autres composants du cluster
+ * ({@link #listen}), par exemple les changements de carnet publiés par les autres instances.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "quotes.cluster.enabled", havingValue = "true")
+public class QuoteReplicaCache implements SmartLifecycle {
+
+    public static final String CHANNEL = "quotes_updated";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final int pollTimeoutMillis;
+    private final long watermarkOverlapMillis;
+
+    private final Map<String, BigDecimal> prices = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<String>> channelHandlers = new ConcurrentHashMap<>();
+    private volatile Timestamp lastSeen = new Timestamp(0);
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public QuoteReplicaCache(JdbcTemplate jdbcTemplate,
+                             DataSourceProperties dataSourceProperties,
+                             @Value("${quotes.cluster.listen-timeout-ms:5000}") int pollTimeoutMillis,
+                             @Value("${quotes.cluster.watermark-overlap-ms:60000}") long watermarkOverlapMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.watermarkOverlapMillis = watermarkOverlapMillis;
+    }
+
+    /**
+     * Prix connus pour les symboles demandés (null si aucune cotation n'a encore été publiée).
+     */
+    public Map<String, BigDecimal> getPrices(String[] symbols) {
+        Map<String, BigDecimal> result = new HashMap<>();
+        for (String symbol : symbols) {
+            result.put(symbol, prices.get(symbol));
+        }
+        return result;
+    }
+
+    /**
+     * Recharge les cotations modifiées depuis la dernière lecture (fenêtre de recouvrement comprise).
+     */
+    public synchronized void refreshChanged() {
+        Timestamp since = new Timestamp(lastSeen.getTime() - watermarkOverlapMillis);
+        jdbcTemplate.query("select symbol, price, updated_at from market_quote where updated_at > ?",
+                rs -> {
+                    BigDecimal price = rs.getBigDecimal("price");
+                    if (price != null) prices.put(rs.getString("symbol"), price);
+                    else prices.remove(rs.getString("symbol"));
+                    Timestamp updatedAt = rs.getTimestamp("updated_at");
+                    if (updatedAt.after(lastSeen)) lastSeen = updatedAt;
+                },
+                since);
+    }
+
+    public int size() {
+        return prices.size();
+    }
+
+    /**
+     * Écoute un canal supplémentaire : le handler reçoit le payload de chaque NOTIFY, sur le thread
+     * d'écoute. À enregistrer avant le démarrage.
+     */
+    public void listen(String channel, Consumer<String> handler) {
+        channelHandlers.put(channel, handler);
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                    for (String channel : channelHandlers.keySet()) statement.execute("LISTEN " + channel);
+                }
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                // Rattrape ce qui a été publié avant (ou pendant) la connexion
+                refreshChanged();
+
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(pollTimeoutMillis);
+                    if (notifications == null) continue;
+                    boolean quotesChanged = false;
+                    for (PGNotification notification : notifications) {
+                        Consumer<String> handler = channelHandlers.get(notification.getName());
+                        if (handler != null) handler.accept(notification.getParameter());
+                        else quotesChanged = true;
+                    }
+                    if (quotesChanged) refreshChanged();
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) return;
+                log.warn("Écoute des cotations interrompue, reconnexion", e);
+                sleepQuietly(pollTimeoutMillis);
+            }
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        listener = new Thread(this::listenLoop, "quote-replica-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) listener.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
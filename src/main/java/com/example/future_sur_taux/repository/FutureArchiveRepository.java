@@ -0,0 +1,55 @@
+package com.example.future_sur_taux.repository;
+
+import com.example.future_sur_taux.domain.FutureArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface FutureArchiveRepository extends JpaRepository<FutureArchive, Long> {
+
+    /**
+     * Copie la ligne complète des futures donnés dans future_archive (avant leur suppression,
+     * dans la même transaction).
+     * @return nombre de lignes archivées
+     */
+    @Modifying
+    @Query(value = "insert into future_archive (future_id, underlying_id, symbol, description, isin, expiration_code, " +
+            "parent_ticker, full_name, segment, trading_currency, first_trading_date, maturity_date, last_trading_date, " +
+            "expiry_date, deletion_date, settlement_date, order_deletion_date, tick_size, tick_value, lot_size, " +
+            "contract_multiplier, settlement_method, collateral_method, deposit_type, percentage_margin, " +
+            "theoretical_price, contract_value, initial_margin_amount, instrument_status, flag_for_delete, issued_qty, " +
+            "load_id, active_load_id, secondary_load_id, internal_load_id, md5multicast_channel_id, " +
+            "secmd5multicast_channel_id, market_data_channel_id, reference_price_table, reference_price, blue_month, " +
+            "mob_type, post_trade_parameter, trading_parameter, calendar_id, archive_reason, archived_at) " +
+            "select f.id, f.underlying_id, f.symbol, f.description, f.isin, f.expiration_code, " +
+            "f.parent_ticker, f.full_name, f.segment, f.trading_currency, f.first_trading_date, f.maturity_date, f.last_trading_date, " +
+            "f.expiry_date, f.deletion_date, f.settlement_date, f.order_deletion_date, f.tick_size, f.tick_value, f.lot_size, " +
+            "f.contract_multiplier, f.settlement_method, f.collateral_method, f.deposit_type, f.percentage_margin, " +
+            "f.theoretical_price, f.contract_value, f.initial_margin_amount, f.instrument_status, f.flag_for_delete, f.issued_qty, " +
+            "f.load_id, f.active_load_id, f.secondary_load_id, f.internal_load_id, f.md5multicast_channel_id, " +
+            "f.secmd5multicast_channel_id, f.market_data_channel_id, f.reference_price_table, f.reference_price, f.blue_month, " +
+            "f.mob_type, f.post_trade_parameter, f.trading_parameter, f.calendar_id, " +
+            "case when f.flag_for_delete then 'FLAGGED' " +
+            "when f.deletion_date <= :today then 'DELETED' else 'EXPIRED' end, :archivedAt " +
+            "from future f where f.id in (:ids)", nativeQuery = true)
+    int archive(@Param("ids") Collection<Long> ids, @Param("today") LocalDate today,
+                @Param("archivedAt") LocalDateTime archivedAt);
+
+    /**
+     * Contrats archivés négociables à un moment de [from ; to], par lot ordonné sur l'id d'origine (backfill).
+     */
+    @Query("select a from FutureArchive a " +
+            "where a.futureId > :afterId " +
+            "and (a.firstTradingDate is null or a.firstTradingDate <= :to) " +
+            "and (a.lastTradingDate is null or a.lastTradingDate >= :from) " +
+            "order by a.futureId")
+    List<FutureArchive> findTradedBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                          @Param("afterId") long afterId, Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.example.future_sur_taux.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Dates de cycle de vie d'un Future, pour alimenter le planificateur.
+ */
+public interface FutureLifecycleRow {
+    Long getId();
+    LocalDate getFirstTradingDate();
+    LocalDate getLastTradingDate();
+    LocalDate getDeletionDate();
+}
@@ -0,0 +1,11 @@
+package com.example.future_sur_taux.repository;
+
+/**
+ * Projection minimale d'un Future pour l'index d'autocomplétion.
+ */
+public interface FutureLookupRow {
+    Long getId();
+    String getSymbol();
+    String getIsin();
+    String getParentTicker();
+}
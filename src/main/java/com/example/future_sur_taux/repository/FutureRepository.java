@@ -1,8 +1,113 @@
 package com.example.future_sur_taux.repository;
 
-import com.example.future_sur_taux.domain.Asset;
 import com.example.future_sur_taux.domain.Future;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface FutureRepository extends JpaRepository<Future, Long> {
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface FutureRepository extends JpaRepository<Future, Long>, JpaSpecificationExecutor<Future> {
+
+    /**
+     * Futures vivants : ni marqués pour suppression, ni échus, ni arrivés à leur date de suppression.
+     */
+    @Query("select f from Future f " +
+            "where (f.flagForDelete is null or f.flagForDelete = false) " +
+            "and (f.lastTradingDate is null or f.lastTradingDate >= :today) " +
+            "and (f.deletionDate is null or f.deletionDate > :today)")
+    List<Future> findLive(@Param("today") LocalDate today);
+
+    /**
+     * Futures vivants avec leur sous-jacent chargé dans la même requête (revalorisation par lot).
+     */
+    @Query("select f from Future f left join fetch f.underlying " +
+            "where (f.flagForDelete is null or f.flagForDelete = false) " +
+            "and (f.lastTradingDate is null or f.lastTradingDate >= :today) " +
+            "and (f.deletionDate is null or f.deletionDate > :today)")
+    List<Future> findLiveWithUnderlying(@Param("today") LocalDate today);
+
+    /**
+     * Futures à archiver (complément exact de {@link #findLive}), par lot ordonné sur l'id.
+     */
+    @Query("select f from Future f left join fetch f.underlying " +
+            "where f.flagForDelete = true " +
+            "or f.lastTradingDate < :today " +
+            "or f.deletionDate <= :today " +
+            "order by f.id")
+    List<Future> findArchivable(@Param("today") LocalDate today, Pageable pageable);
+
+    @Query("select f.id as id, f.symbol as symbol, f.isin as isin, f.parentTicker as parentTicker " +
+            "from Future f " +
+            "where (f.flagForDelete is null or f.flagForDelete = false) " +
+            "and (f.lastTradingDate is null or f.lastTradingDate >= :today) " +
+            "and (f.deletionDate is null or f.deletionDate > :today)")
+    List<FutureLookupRow> findLiveLookupRows(@Param("today") LocalDate today);
+
+    @Query("select distinct f.symbol from Future f " +
+            "where f.symbol is not null " +
+            "and (f.flagForDelete is null or f.flagForDelete = false) " +
+            "and (f.lastTradingDate is null or f.lastTradingDate >= :today) " +
+            "and (f.deletionDate is null or f.deletionDate > :today)")
+    List<String> findLiveSymbols(@Param("today") LocalDate today);
+
+    /**
+     * Dates de cycle de vie des futures vivants et de ceux dont une transition est en retard
+     * (négociation à arrêter, suppression échue), pour les rattraper au démarrage.
+     */
+    @Query("select f.id as id, f.firstTradingDate as firstTradingDate, f.lastTradingDate as lastTradingDate, " +
+            "f.deletionDate as deletionDate " +
+            "from Future f " +
+            "where (f.flagForDelete is null or f.flagForDelete = false) " +
+            "and (((f.lastTradingDate is null or f.lastTradingDate >= :today) " +
+            "and (f.deletionDate is null or f.deletionDate > :today)) " +
+            "or f.instrumentStatus = true " +
+            "or f.deletionDate <= :today)")
+    List<FutureLifecycleRow> findLifecycleRows(@Param("today") LocalDate today);
+
+    /**
+     * Réserve le roll d'un contrat arrivant à échéance (dans la transaction du roll).
+     * @return 0 si ce contrat a déjà été roulé, par cette instance ou une autre
+     */
+    @Modifying
+    @Query(value = "insert into future_roll (expiring_future_id, rolled_on) values (:futureId, :day) " +
+            "on conflict (expiring_future_id) do nothing", nativeQuery = true)
+    int markRolled(@Param("futureId") long futureId, @Param("day") LocalDate day);
+
+    /**
+     * Enregistre le contrat issu du roll (dans la même transaction que la réservation).
+     */
+    @Modifying
+    @Query(value = "update future_roll set rolled_future_id = :rolledFutureId where expiring_future_id = :futureId",
+            nativeQuery = true)
+    int recordRolled(@Param("futureId") long futureId, @Param("rolledFutureId") long rolledFutureId);
+
+    /**
+     * Contrat issu du roll d'un contrat échu (null si pas encore roulé ou roulé sans contrat créé).
+     */
+    @Query(value = "select rolled_future_id from future_roll where expiring_future_id = :futureId", nativeQuery = true)
+    Long findRolledFutureId(@Param("futureId") long futureId);
+
+    /**
+     * Futures négociables à un moment de [from ; to], sous-jacent chargé, par lot ordonné sur l'id (backfill).
+     */
+    @Query("select f from Future f left join fetch f.underlying " +
+            "where f.id > :afterId " +
+            "and (f.firstTradingDate is null or f.firstTradingDate <= :to) " +
+            "and (f.lastTradingDate is null or f.lastTradingDate >= :from) " +
+            "order by f.id")
+    List<Future> findTradedBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                   @Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Dernière échéance listée d'une série : modèle du contrat créé au roll.
+     */
+    Optional<Future> findFirstByParentTickerOrderByMaturityDateDesc(String parentTicker);
+
+    Optional<Future> findFirstBySymbolOrderByIdAsc(String symbol);
 }
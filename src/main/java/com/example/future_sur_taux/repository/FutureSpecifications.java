@@ -0,0 +1,66 @@
+package com.example.future_sur_taux.repository;
+
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.dto.FutureSearchCriteria;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spécifications de recherche sur Future. Chaque critère correspond à un index
+ * de V2__future_search_indexes.sql.
+ */
+public final class FutureSpecifications {
+
+    private FutureSpecifications() {
+    }
+
+    public static Specification<Future> matching(FutureSearchCriteria criteria, LocalDate today) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (hasText(criteria.getIsin())) {
+                predicates.add(cb.equal(root.get("isin"), criteria.getIsin().trim()));
+            }
+            if (hasText(criteria.getSymbolPrefix())) {
+                String prefix = escapeLike(criteria.getSymbolPrefix().trim().toUpperCase()) + "%";
+                predicates.add(cb.like(cb.upper(root.get("symbol")), prefix, '\\'));
+            }
+            if (hasText(criteria.getParentTicker())) {
+                predicates.add(cb.equal(root.get("parentTicker"), criteria.getParentTicker().trim()));
+            }
+            if (hasText(criteria.getSegment())) {
+                predicates.add(cb.equal(root.get("segment"), criteria.getSegment().trim()));
+            }
+            if (hasText(criteria.getCurrency())) {
+                predicates.add(cb.equal(root.get("tradingCurrency"), criteria.getCurrency().trim()));
+            }
+            if (criteria.getMaturityFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("maturityDate"), criteria.getMaturityFrom()));
+            }
+            if (criteria.getMaturityTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("maturityDate"), criteria.getMaturityTo()));
+            }
+            if (!criteria.isIncludeExpired()) {
+                // Même prédicat que FutureRepository.findLive
+                predicates.add(cb.or(cb.isNull(root.get("flagForDelete")), cb.isFalse(root.get("flagForDelete"))));
+                predicates.add(cb.or(cb.isNull(root.get("lastTradingDate")),
+                        cb.greaterThanOrEqualTo(root.get("lastTradingDate"), today)));
+                predicates.add(cb.or(cb.isNull(root.get("deletionDate")),
+                        cb.greaterThan(root.get("deletionDate"), today)));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
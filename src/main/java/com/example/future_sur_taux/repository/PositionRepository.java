@@ -0,0 +1,14 @@
+package com.example.future_sur_taux.repository;
+
+import com.example.future_sur_taux.domain.Position;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PositionRepository extends JpaRepository<Position, Long> {
+
+    List<Position> findByAccountId(String accountId);
+
+    Optional<Position> findByAccountIdAndFutureId(String accountId, Long futureId);
+}
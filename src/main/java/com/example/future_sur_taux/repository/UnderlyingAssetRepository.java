@@ -3,10 +3,26 @@ package com.example.future_sur_taux.repository;
 import com.example.future_sur_taux.domain.UnderlyingAsset;
 import com.example.future_sur_taux.domain.enumeration.UnderlyingType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface UnderlyingAssetRepository extends JpaRepository<UnderlyingAsset, Long> {
     List<UnderlyingAsset> findByUnderlyingType(UnderlyingType underlyingType);
 
+    /**
+     * Page de la liste plate (id, identifier, type, symbole, ISIN, maturité) après l'id donné.
+     * Requête native : une seule jointure explicite vers bond, sans chargement polymorphe d'Asset.
+     */
+    @Query(value = "select u.id, u.identifier, u.underlying_type, a.symbol, a.isin, b.maturity_date " +
+            "from underlying u " +
+            "join underlying_asset ua on ua.id = u.id " +
+            "left join asset a on a.id = ua.asset_id " +
+            "left join bond b on b.id = a.id " +
+            "where u.underlying_type = :type and u.id > :after " +
+            "order by u.id " +
+            "limit :limit", nativeQuery = true)
+    List<Object[]> findListingPage(@Param("type") String type, @Param("after") long after, @Param("limit") int limit);
+
 }
@@ -0,0 +1,9 @@
+package com.example.future_sur_taux.repository;
+
+/**
+ * Projection minimale d'un Underlying pour l'index d'autocomplétion.
+ */
+public interface UnderlyingLookupRow {
+    Long getId();
+    String getIdentifier();
+}
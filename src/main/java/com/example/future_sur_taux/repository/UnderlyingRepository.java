@@ -3,6 +3,12 @@ package com.example.future_sur_taux.repository;
 import com.example.future_sur_taux.domain.Future;
 import com.example.future_sur_taux.domain.Underlying;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface UnderlyingRepository extends JpaRepository<Underlying, Long> {
+
+    @Query("select u.id as id, u.identifier as identifier from Underlying u")
+    List<UnderlyingLookupRow> findLookupRows();
 }
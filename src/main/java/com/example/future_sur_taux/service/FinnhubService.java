@@ -1,5 +1,10 @@
 package com.example.future_sur_taux.service;
 
+import com.example.future_sur_taux.coalescing.SingleFlight;
+import com.example.future_sur_taux.profiling.FinnhubQuoteEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -8,36 +13,67 @@ import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
 
+@Slf4j
 @Service
+@RequiredArgsConstructor
 public class FinnhubService {
 
     private static final String API_URL = "https://finnhub.io/api/v1/quote";
     private static final String API_KEY = "d3ub6h9r01qvr0dmcch0d3ub6h9r01qvr0dmcchg"; // Remplace par ta clé
     private final RestTemplate restTemplate = new RestTemplate();
 
+    // Un seul appel en cours par symbole, résultat réutilisé quelques secondes
+    private final SingleFlight<String, BigDecimal> quoteFlight;
+
+    // false : aucun appel externe, prix inconnus (benchmarks, environnements hors ligne)
+    @Value("${finnhub.enabled:true}")
+    private boolean enabled;
+
     public Map<String, BigDecimal> getMarketPrices(String[] symbols) {
         Map<String, BigDecimal> prices = new HashMap<>();
+        if (!enabled) {
+            for (String symbol : symbols) prices.put(symbol, null);
+            return prices;
+        }
 
         for (String symbol : symbols) {
             try {
-                String url = UriComponentsBuilder.fromHttpUrl(API_URL)
-                        .queryParam("symbol", symbol)
-                        .queryParam("token", API_KEY)
-                        .toUriString();
-
-                Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-                if (response != null && response.get("c") != null) {
-                    BigDecimal price = new BigDecimal(response.get("c").toString());
-                    prices.put(symbol, price);
-                } else {
-                    prices.put(symbol, null);
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
+                prices.put(symbol, quoteFlight.get(symbol, () -> fetchPrice(symbol)));
+            } catch (RuntimeException e) {
+                // Échec non conservé par le single-flight : le prochain appel réinterroge Finnhub
+                log.warn("Cotation Finnhub indisponible pour {} : {}", symbol, e.getMessage());
                 prices.put(symbol, null);
             }
         }
 
         return prices;
     }
+
+    private BigDecimal fetchPrice(String symbol) {
+        FinnhubQuoteEvent event = new FinnhubQuoteEvent();
+        event.begin();
+        event.symbol = symbol;
+        try {
+            BigDecimal price = requestPrice(symbol);
+            event.found = price != null;
+            return price;
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Les erreurs (réseau, HTTP, réponse illisible) remontent : le single-flight ne les conserve pas.
+     * @return null si Finnhub ne connaît pas le symbole
+     */
+    private BigDecimal requestPrice(String symbol) {
+        String url = UriComponentsBuilder.fromHttpUrl(API_URL)
+                .queryParam("symbol", symbol)
+                .queryParam("token", API_KEY)
+                .toUriString();
+
+        Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+        if (response == null || response.get("c") == null) return null;
+        return new BigDecimal(response.get("c").toString());
+    }
 }
@@ -2,79 +2,180 @@ package com.example.future_sur_taux.service;
 
 import com.example.future_sur_taux.domain.Bond;
 import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.domain.enumeration.RateType;
+import com.example.future_sur_taux.pricing.MonteCarloMemo;
+import com.example.future_sur_taux.pricing.MonteCarloResult;
+import com.example.future_sur_taux.pricing.PricingContext;
+import com.example.future_sur_taux.pricing.PricingContextFactory;
+import com.example.future_sur_taux.pricing.PricingProperties;
+import com.example.future_sur_taux.pricing.VariableRateBondPricer;
+import com.example.future_sur_taux.profiling.FutureCalculationEvent;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
 
 @Service
+@RequiredArgsConstructor
 public class FutureCalculationService {
 
     // Exemple : taux sans risque fixe pour simplification (3% par an)
     private static final BigDecimal RISK_FREE_RATE = BigDecimal.valueOf(0.03);
 
+    private final PricingContextFactory pricingContextFactory;
+    private final VariableRateBondPricer variableRateBondPricer;
+    private final PricingProperties pricingProperties;
+
     /**
      * Calcule le prix théorique du future sur obligation.
      * Approche réaliste : (Prix clean + Intérêt couru - PV coupons) actualisé avec capitalisation continue
      */
     public void calculateTheoreticalPrice(Future future, Bond bond) {
         if (future == null || bond == null) return;
+        calculateTheoreticalPrice(future, bond, pricingContextFactory.contextFor(LocalDate.now(), future, bond));
+    }
+
+    /**
+     * Même calcul à la date de valeur du contexte, fractions d'année selon sa base de calcul.
+     */
+    public void calculateTheoreticalPrice(Future future, Bond bond, PricingContext context) {
+        calculateTheoreticalPrice(future, bond, context, null);
+    }
 
+    /**
+     * Création et revalorisation : Monte Carlo à pricing.monte-carlo.batch-paths trajectoires,
+     * simulations partagées via memo (null = pas de partage).
+     */
+    public void calculateTheoreticalPrice(Future future, Bond bond, PricingContext context, MonteCarloMemo memo) {
+        if (future == null || bond == null) return;
         BigDecimal cleanPrice = bond.getUnderlyingPrice() != null ? bond.getUnderlyingPrice() : BigDecimal.ZERO;
-        BigDecimal accruedInterest = bond.calculerInteretCouru(); // intérêt couru depuis dernier coupon
-        BigDecimal pvCoupons = bond.calculerPVCoupons(RISK_FREE_RATE); // PV des coupons actualisés
+        future.setTheoreticalPrice(theoreticalPrice(future, bond, cleanPrice, context,
+                pricingProperties.getMonteCarlo().getBatchPaths(), memo));
+    }
+
+    /**
+     * Prix théorique pour un prix clean donné (ex. prix historique), sans modifier le future.
+     * monteCarloPaths : trajectoires du Monte Carlo des taux variables (0 = valeur configurée).
+     * @return null si le prix clean manque pour une obligation à taux fixe
+     */
+    public BigDecimal theoreticalPrice(Future future, Bond bond, BigDecimal cleanPrice, PricingContext context,
+                                       int monteCarloPaths) {
+        return theoreticalPrice(future, bond, cleanPrice, context, monteCarloPaths, null);
+    }
+
+    /**
+     * Variante lot : memo partage la simulation entre futures de même obligation et même échéance.
+     */
+    public BigDecimal theoreticalPrice(Future future, Bond bond, BigDecimal cleanPrice, PricingContext context,
+                                       int monteCarloPaths, MonteCarloMemo memo) {
+        // Taux variable : coupons futurs inconnus, prix à terme issu du Monte Carlo de taux court
+        if (bond.getRateType() == RateType.VARIABLE_RATE) {
+            MonteCarloResult result = memo != null
+                    ? memo.get(bond.getId(), future.getMaturityDate(), context, monteCarloPaths,
+                            () -> variableRateBondPricer.price(future, bond, context, monteCarloPaths))
+                    : variableRateBondPricer.price(future, bond, context, monteCarloPaths);
+            if (result != null) {
+                return BigDecimal.valueOf(result.forwardPrice()).setScale(4, RoundingMode.HALF_UP);
+            }
+        }
+        if (cleanPrice == null) return null;
+
+        BigDecimal accruedInterest = bond.calculerInteretCouru(context); // intérêt couru depuis dernier coupon
+        BigDecimal pvCoupons = bond.calculerPVCoupons(RISK_FREE_RATE, context); // PV des coupons actualisés
 
         // Calcul de la durée jusqu'à maturité en années
-        LocalDate today = LocalDate.now();
-        LocalDate maturity = future.getMaturityDate() != null ? future.getMaturityDate() : today;
-        long daysToMaturity = ChronoUnit.DAYS.between(today, maturity);
-        BigDecimal t = BigDecimal.valueOf(daysToMaturity).divide(BigDecimal.valueOf(365), 10, RoundingMode.HALF_UP);
+        LocalDate valuationDate = context.getValuationDate();
+        LocalDate maturity = future.getMaturityDate() != null ? future.getMaturityDate() : valuationDate;
+        double t = context.yearFraction(maturity);
 
         // Capitalisation continue : F = (Clean + AI - PV coupons) * exp(rf * t)
-        double exponent = RISK_FREE_RATE.doubleValue() * t.doubleValue();
+        double exponent = RISK_FREE_RATE.doubleValue() * t;
         BigDecimal expFactor = BigDecimal.valueOf(Math.exp(exponent));
 
-        BigDecimal theoreticalPrice = cleanPrice
+        return cleanPrice
                 .add(accruedInterest)
                 .subtract(pvCoupons)
                 .multiply(expFactor)
                 .setScale(4, RoundingMode.HALF_UP);
+    }
 
-        future.setTheoreticalPrice(theoreticalPrice);
+    /**
+     * Diagnostics du Monte Carlo (erreur type, réduction de variance…) pour un future sur obligation à taux variable,
+     * au nombre complet de trajectoires (pricing.monte-carlo.paths).
+     */
+    public MonteCarloResult monteCarloDiagnostics(Future future, Bond bond) {
+        if (future == null || bond == null || bond.getRateType() != RateType.VARIABLE_RATE) return null;
+        return variableRateBondPricer.price(future, bond, pricingContextFactory.contextFor(LocalDate.now(), future, bond));
     }
 
     /**
      * Calcule la valeur totale du contrat (Contract Value)
      */
     public void calculateContractValue(Future future) {
-        if (future.getTheoreticalPrice() != null && future.getContractMultiplier() != null) {
-            BigDecimal contractValue = future.getTheoreticalPrice()
-                    .multiply(BigDecimal.valueOf(future.getContractMultiplier()))
-                    .setScale(4, RoundingMode.HALF_UP);
-            future.setContractValue(contractValue);
-        }
+        BigDecimal contractValue = contractValue(future.getTheoreticalPrice(), future.getContractMultiplier());
+        if (contractValue != null) future.setContractValue(contractValue);
+    }
+
+    /**
+     * Prix théorique × multiplicateur ; null si l'un des deux manque.
+     */
+    public BigDecimal contractValue(BigDecimal theoreticalPrice, Integer contractMultiplier) {
+        if (theoreticalPrice == null || contractMultiplier == null) return null;
+        return theoreticalPrice
+                .multiply(BigDecimal.valueOf(contractMultiplier))
+                .setScale(4, RoundingMode.HALF_UP);
     }
 
     /**
      * Calcule la marge initiale (Initial Margin)
      */
     public void calculateInitialMargin(Future future) {
-        if (future.getContractValue() != null && future.getPercentageMargin() != null) {
-            BigDecimal initialMargin = future.getContractValue()
-                    .multiply(future.getPercentageMargin())
-                    .divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
-            future.setInitialMarginAmount(initialMargin);
-        }
+        BigDecimal initialMargin = initialMargin(future.getContractValue(), future.getPercentageMargin());
+        if (initialMargin != null) future.setInitialMarginAmount(initialMargin);
+    }
+
+    /**
+     * Valeur du contrat × pourcentage de marge / 100 ; null si l'un des deux manque.
+     */
+    public BigDecimal initialMargin(BigDecimal contractValue, BigDecimal percentageMargin) {
+        if (contractValue == null || percentageMargin == null) return null;
+        return contractValue
+                .multiply(percentageMargin)
+                .divide(BigDecimal.valueOf(100), 4, RoundingMode.HALF_UP);
     }
 
     /**
      * Méthode complète pour calculer tous les champs calculés d'un Future
      */
     public void calculateAll(Future future, Bond bond) {
-        calculateTheoreticalPrice(future, bond);
+        PricingContext context = future != null && bond != null
+                ? pricingContextFactory.contextFor(LocalDate.now(), future, bond)
+                : null;
+        calculateAll(future, bond, context);
+    }
+
+    public void calculateAll(Future future, Bond bond, PricingContext context) {
+        calculateAll(future, bond, context, null);
+    }
+
+    /**
+     * Variante lot : le contexte (et ses tables) et les simulations Monte Carlo sont partagés
+     * par tous les futures du lot.
+     */
+    public void calculateAll(Future future, Bond bond, PricingContext context, MonteCarloMemo memo) {
+        FutureCalculationEvent event = new FutureCalculationEvent();
+        event.begin();
+        calculateTheoreticalPrice(future, bond, context, memo);
         calculateContractValue(future);
         calculateInitialMargin(future);
+        if (event.shouldCommit() && future != null) {
+            event.symbol = future.getSymbol();
+            event.futureId = future.getId() != null ? future.getId() : 0;
+            event.bondId = bond != null && bond.getId() != null ? bond.getId() : 0;
+            event.rateType = bond != null && bond.getRateType() != null ? bond.getRateType().name() : null;
+            event.commit();
+        }
     }
 }
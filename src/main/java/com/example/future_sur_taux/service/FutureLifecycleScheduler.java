@@ -0,0 +1,346 @@
+package com.example.future_sur_taux.service;
+
+import com.example.future_sur_taux.book.BookSnapshotService;
+import com.example.future_sur_taux.domain.Bond;
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.lifecycle.HierarchicalTimingWheel;
+import com.example.future_sur_taux.lifecycle.LifecycleEvent;
+import com.example.future_sur_taux.repository.FutureLifecycleRow;
+import com.example.future_sur_taux.repository.FutureRepository;
+import com.example.future_sur_taux.tenant.TenantContext;
+import com.example.future_sur_taux.tenant.TenantRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Transitions de cycle de vie déclenchées par les dates des futures (activation, arrêt de la
+ * négociation, roll vers l'échéance suivante, suppression).
+ *
+ * Les dates sont chargées une fois au démarrage dans une roue temporelle hiérarchique (un tick par
+ * jour), puis complétées à chaque création : la table n'est pas relue pour trouver les échéances.
+ * Chaque jour, la roue avance et rend les événements du jour, appliqués par type en un lot. L'état
+ * est revérifié au moment de l'application : un contrat modifié ou archivé entre-temps est ignoré.
+ * Une roue par tenant, verrouillée indépendamment.
+ *
+ * En mode cluster, chaque instance avance sa propre roue : les transitions sont idempotentes et
+ * le roll est réservé en base (future_roll), un seul contrat est donc créé par échéance.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FutureLifecycleScheduler {
+
+    // Codes mois des échéances (janvier = F … décembre = Z)
+    private static final String MONTH_CODES = "FGHJKMNQUVXZ";
+    private static final Pattern EXPIRATION_CODE = Pattern.compile("([FGHJKMNQUVXZ])(\\d{2})");
+
+    private final FutureRepository futureRepository;
+    private final FutureCalculationService calculationService;
+    private final InstrumentLookupIndex instrumentLookupIndex;
+    private final BookSnapshotService bookSnapshotService;
+    private final TransactionTemplate transactionTemplate;
+    private final TenantRegistry tenantRegistry;
+
+    @Value("${future.lifecycle.roll-enabled:true}")
+    private boolean rollEnabled;
+
+    // Absente tant que le chargement initial du tenant n'a pas eu lieu
+    private final Map<String, HierarchicalTimingWheel<LifecycleEvent>> wheels = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        tenantRegistry.forEachTenant(this::load);
+    }
+
+    /**
+     * Charge la roue du tenant courant.
+     */
+    public void load() {
+        LocalDate today = LocalDate.now();
+        List<LifecycleEvent> overdue = new ArrayList<>();
+        int planned;
+        HierarchicalTimingWheel<LifecycleEvent> wheel = new HierarchicalTimingWheel<>(today.toEpochDay());
+        // Lecture sous le verrou : un future créé pendant le chargement est soit lu, soit planifié ensuite
+        synchronized (wheel) {
+            wheels.put(TenantContext.current(), wheel);
+            for (FutureLifecycleRow row : futureRepository.findLifecycleRows(today)) {
+                schedule(wheel, row.getId(), row.getFirstTradingDate(), row.getLastTradingDate(), row.getDeletionDate(), today, overdue);
+            }
+            planned = wheel.size();
+        }
+        log.info("{} événements de cycle de vie planifiés, {} à rattraper", planned, overdue.size());
+        fire(today, overdue);
+    }
+
+    /**
+     * Planifie les événements d'un future qui vient d'être créé.
+     */
+    public void schedule(Future future) {
+        if (future.getId() == null) return;
+        HierarchicalTimingWheel<LifecycleEvent> wheel = wheels.get(TenantContext.current());
+        if (wheel == null) return; // chargement initial pas encore fait : il lira ce future
+        List<LifecycleEvent> overdue = new ArrayList<>();
+        LocalDate today;
+        synchronized (wheel) {
+            today = LocalDate.ofEpochDay(wheel.getCurrentTick());
+            schedule(wheel, future.getId(), future.getFirstTradingDate(), future.getLastTradingDate(), future.getDeletionDate(), today, overdue);
+        }
+        fire(today, overdue);
+    }
+
+    @Scheduled(cron = "${future.lifecycle.wheel-cron:0 5 0 * * *}")
+    public void advance() {
+        LocalDate today = LocalDate.now();
+        tenantRegistry.forEachTenant(() -> advanceTo(today));
+    }
+
+    /**
+     * Avance la roue du tenant courant jusqu'au jour donné.
+     */
+    public void advanceTo(LocalDate day) {
+        HierarchicalTimingWheel<LifecycleEvent> wheel = wheels.get(TenantContext.current());
+        if (wheel == null) return;
+        while (true) {
+            List<LifecycleEvent> due = new ArrayList<>();
+            LocalDate tick;
+            synchronized (wheel) {
+                if (wheel.getCurrentTick() >= day.toEpochDay()) return;
+                // Un jour à la fois : les contrats créés par un roll peuvent ajouter des événements
+                wheel.advanceTo(wheel.getCurrentTick() + 1, due::addAll);
+                tick = LocalDate.ofEpochDay(wheel.getCurrentTick());
+            }
+            fire(tick, due);
+        }
+    }
+
+    public int pendingEvents() {
+        HierarchicalTimingWheel<LifecycleEvent> wheel = wheels.get(TenantContext.current());
+        if (wheel == null) return 0;
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    // ---------------- Planification ----------------
+
+    private void schedule(HierarchicalTimingWheel<LifecycleEvent> wheel, long id, LocalDate firstTradingDate,
+                          LocalDate lastTradingDate, LocalDate deletionDate, LocalDate today, List<LifecycleEvent> overdue) {
+        // Les transitions d'état sont idempotentes : une date passée est rattrapée immédiatement
+        add(wheel, id, LifecycleEvent.Type.ACTIVATE, firstTradingDate, overdue);
+        add(wheel, id, LifecycleEvent.Type.STOP_TRADING, lastTradingDate != null ? lastTradingDate.plusDays(1) : null, overdue);
+        add(wheel, id, LifecycleEvent.Type.DELETE, deletionDate, overdue);
+        // Le roll crée un contrat : seulement à venir (ou aujourd'hui)
+        if (rollEnabled && lastTradingDate != null && !lastTradingDate.isBefore(today)) {
+            add(wheel, id, LifecycleEvent.Type.ROLL, lastTradingDate, overdue);
+        }
+    }
+
+    private static void add(HierarchicalTimingWheel<LifecycleEvent> wheel, long id, LifecycleEvent.Type type,
+                            LocalDate date, List<LifecycleEvent> overdue) {
+        if (date == null) return;
+        LifecycleEvent event = new LifecycleEvent(id, type);
+        if (!wheel.add(date.toEpochDay(), event)) overdue.add(event);
+    }
+
+    // ---------------- Application ----------------
+
+    private void fire(LocalDate day, List<LifecycleEvent> events) {
+        if (events.isEmpty()) return;
+        Map<LifecycleEvent.Type, List<Long>> byType = new EnumMap<>(LifecycleEvent.Type.class);
+        for (LifecycleEvent event : events) {
+            byType.computeIfAbsent(event.type(), t -> new ArrayList<>()).add(event.futureId());
+        }
+
+        for (Map.Entry<LifecycleEvent.Type, List<Long>> entry : byType.entrySet()) {
+            try {
+                if (entry.getKey() == LifecycleEvent.Type.ROLL) {
+                    for (Long id : entry.getValue()) roll(id, day);
+                } else {
+                    applyTransitions(entry.getKey(), entry.getValue(), day);
+                }
+            } catch (RuntimeException e) {
+                log.error("Échec des événements {} du {} ({} futures)", entry.getKey(), day, entry.getValue().size(), e);
+            }
+        }
+    }
+
+    /**
+     * Applique les transitions et publie l'état en base de chaque future concerné, modifié ici ou
+     * non : en mode cluster, une autre instance a pu appliquer la transition la première.
+     */
+    private void applyTransitions(LifecycleEvent.Type type, List<Long> ids, LocalDate day) {
+        int[] changed = {0};
+        List<Future> fired = transactionTemplate.execute(status -> {
+            List<Future> found = new ArrayList<>();
+            for (Future future : futureRepository.findAllById(ids)) {
+                if (apply(type, future, day)) changed[0]++;
+                // L'instantané lit le sous-jacent après la transaction
+                Hibernate.initialize(future.getUnderlying());
+                found.add(future);
+            }
+            return found;
+        });
+        if (fired == null) return;
+
+        // Absents de la table : archivés entre-temps
+        Set<Long> archived = new HashSet<>(ids);
+        for (Future future : fired) archived.remove(future.getId());
+        bookSnapshotService.publishUpserts(fired);
+        bookSnapshotService.publishRemovals(archived);
+        instrumentLookupIndex.removeFutures(archived);
+        if (changed[0] > 0) log.info("{} : {} futures au {}", type, changed[0], day);
+    }
+
+    private static boolean apply(LifecycleEvent.Type type, Future future, LocalDate day) {
+        switch (type) {
+            case ACTIVATE:
+                if (Boolean.TRUE.equals(future.getInstrumentStatus())
+                        || future.getFirstTradingDate() == null || future.getFirstTradingDate().isAfter(day)
+                        || (future.getLastTradingDate() != null && future.getLastTradingDate().isBefore(day))) {
+                    return false;
+                }
+                future.setInstrumentStatus(true);
+                return true;
+            case STOP_TRADING:
+                if (!Boolean.TRUE.equals(future.getInstrumentStatus())
+                        || future.getLastTradingDate() == null || !future.getLastTradingDate().isBefore(day)) {
+                    return false;
+                }
+                future.setInstrumentStatus(false);
+                return true;
+            case DELETE:
+                if (Boolean.TRUE.equals(future.getFlagForDelete())
+                        || future.getDeletionDate() == null || future.getDeletionDate().isAfter(day)) {
+                    return false;
+                }
+                future.setFlagForDelete(true);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // ---------------- Roll ----------------
+
+    /**
+     * Le contrat qui arrive à son dernier jour de négociation déclenche la création de l'échéance
+     * suivant la plus lointaine de sa série, sur le modèle de celle-ci : la série garde le même
+     * nombre d'échéances listées. Une seule création par contrat échu : la réservation dans
+     * future_roll est validée avec le nouveau contrat et en garde l'id. Une autre instance (ou un
+     * nouveau passage) ne crée rien mais publie le contrat enregistré, tel qu'en base, dans son
+     * instantané et son index.
+     */
+    private void roll(long futureId, LocalDate day) {
+        boolean[] created = {false};
+        Future rolled = transactionTemplate.execute(status -> {
+            Future expiring = futureRepository.findById(futureId).orElse(null);
+            if (expiring == null || expiring.getParentTicker() == null
+                    || !day.equals(expiring.getLastTradingDate())) {
+                return null;
+            }
+            // Bloque jusqu'au commit d'un roll concurrent du même contrat, puis relit son résultat
+            if (futureRepository.markRolled(futureId, day) == 0) {
+                Long rolledId = futureRepository.findRolledFutureId(futureId);
+                Future existing = rolledId != null ? futureRepository.findById(rolledId).orElse(null) : null;
+                if (existing != null) Hibernate.initialize(existing.getUnderlying());
+                return existing;
+            }
+            Future template = futureRepository.findFirstByParentTickerOrderByMaturityDateDesc(expiring.getParentTicker())
+                    .orElse(expiring);
+            Future next = nextContract(template);
+            if (next == null) return null;
+
+            // Échéance déjà listée (créée hors roll) : elle devient le contrat issu du roll
+            Future saved = futureRepository.findFirstBySymbolOrderByIdAsc(next.getSymbol()).orElse(null);
+            if (saved == null) {
+                Bond bond = FutureRepricingService.bondOf(next.getUnderlying());
+                if (bond != null) calculationService.calculateAll(next, bond);
+                saved = futureRepository.save(next);
+                created[0] = true;
+            }
+            futureRepository.recordRolled(futureId, saved.getId());
+            Hibernate.initialize(saved.getUnderlying());
+            return saved;
+        });
+        if (rolled == null) return;
+
+        // addFuture remplace les clés existantes : sans effet si le contrat est déjà indexé
+        instrumentLookupIndex.addFuture(rolled);
+        bookSnapshotService.publishUpserts(List.of(rolled));
+        // Planifié aussi par les instances qui ne l'ont pas créé : un événement en double est sans effet
+        schedule(rolled);
+        log.info("Roll : {} {} au {}", rolled.getSymbol(), created[0] ? "créé" : "publié", day);
+    }
+
+    /**
+     * Échéance suivante : +3 mois pour le cycle trimestriel (H, M, U, Z), +1 mois sinon.
+     */
+    static Future nextContract(Future template) {
+        if (template.getExpirationCode() == null || template.getMaturityDate() == null) return null;
+        Matcher matcher = EXPIRATION_CODE.matcher(template.getExpirationCode());
+        if (!matcher.matches()) return null;
+
+        int step = "HMUZ".indexOf(matcher.group(1).charAt(0)) >= 0 ? 3 : 1;
+        LocalDate maturity = template.getMaturityDate().plusMonths(step);
+        String code = "" + MONTH_CODES.charAt(maturity.getMonthValue() - 1) + String.format("%02d", maturity.getYear() % 100);
+        String previousCode = template.getExpirationCode();
+
+        Future next = new Future();
+        next.setExpirationCode(code);
+        next.setParentTicker(template.getParentTicker());
+        next.setSymbol(template.getSymbol() != null && template.getSymbol().endsWith(previousCode)
+                ? template.getSymbol().substring(0, template.getSymbol().length() - previousCode.length()) + code
+                : template.getParentTicker() + code);
+        next.setDescription(replaceCode(template.getDescription(), previousCode, code));
+        next.setFullName(replaceCode(template.getFullName(), previousCode, code));
+        next.setSegment(template.getSegment());
+        next.setFirstTradingDate(plusMonths(template.getFirstTradingDate(), step));
+        next.setLastTradingDate(plusMonths(template.getLastTradingDate(), step));
+        next.setMaturityDate(maturity);
+        next.setExpiryDate(plusMonths(template.getExpiryDate(), step));
+        next.setSettlementDate(plusMonths(template.getSettlementDate(), step));
+        next.setDeletionDate(plusMonths(template.getDeletionDate(), step));
+        next.setTickSize(template.getTickSize());
+        next.setTickValue(template.getTickValue());
+        next.setTradingCurrency(template.getTradingCurrency());
+        next.setLotSize(template.getLotSize());
+        next.setContractMultiplier(template.getContractMultiplier());
+        next.setUnderlying(template.getUnderlying());
+        next.setSettlementMethod(template.getSettlementMethod());
+        next.setCollateralMethod(template.getCollateralMethod());
+        next.setDepositType(template.getDepositType());
+        next.setPercentageMargin(template.getPercentageMargin());
+        next.setCalendarId(template.getCalendarId());
+        next.setBlueMonth(template.getBlueMonth());
+        next.setFlagForDelete(false);
+        // Actif à partir de sa firstTradingDate (événement ACTIVATE)
+        next.setInstrumentStatus(false);
+        return next;
+    }
+
+    private static LocalDate plusMonths(LocalDate date, int months) {
+        return date != null ? date.plusMonths(months) : null;
+    }
+
+    private static String replaceCode(String text, String previousCode, String code) {
+        return text != null ? text.replace(previousCode, code) : null;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.future_sur_taux.service;
+
+import com.example.future_sur_taux.book.BookSnapshotService;
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.repository.FutureArchiveRepository;
+import com.example.future_sur_taux.repository.FutureRepository;
+import com.example.future_sur_taux.tenant.TenantRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cycle de vie des futures : déplace les contrats échus ou marqués pour suppression
+ * vers la table future_archive (ligne complète), par lots, chaque lot dans sa propre transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FutureLifecycleService {
+
+    private final FutureRepository futureRepository;
+    private final FutureArchiveRepository futureArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InstrumentLookupIndex instrumentLookupIndex;
+    private final BookSnapshotService bookSnapshotService;
+    private final TenantRegistry tenantRegistry;
+
+    @Value("${future.lifecycle.archive-batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${future.lifecycle.archive-cron:0 30 1 * * *}")
+    public void archiveScheduled() {
+        LocalDate today = LocalDate.now();
+        tenantRegistry.forEachTenant(() -> archiveExpiredAndFlagged(today));
+    }
+
+    /**
+     * Archive tous les futures non vivants du tenant courant à la date donnée.
+     * @return nombre de contrats archivés
+     */
+    public int archiveExpiredAndFlagged(LocalDate today) {
+        int total = 0;
+        int archived;
+        do {
+            List<Long> ids = transactionTemplate.execute(status -> archiveBatch(today));
+            archived = ids != null ? ids.size() : 0;
+            // Publié après le commit du lot
+            if (archived > 0) bookSnapshotService.publishRemovals(ids);
+            total += archived;
+        } while (archived == batchSize);
+
+        if (total > 0) log.info("{} futures archivés au {}", total, today);
+        return total;
+    }
+
+    private List<Long> archiveBatch(LocalDate today) {
+        // Toujours la première page : les lignes du lot précédent ont été supprimées
+        List<Future> batch = futureRepository.findArchivable(today, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) return List.of();
+
+        List<Long> ids = batch.stream().map(Future::getId).toList();
+        // Ligne complète copiée en SQL : le contrat archivé reste restaurable et valorisable
+        futureArchiveRepository.archive(ids, today, LocalDateTime.now());
+        futureRepository.deleteAllInBatch(batch);
+        instrumentLookupIndex.removeFutures(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.future_sur_taux.service;
+
+import com.example.future_sur_taux.book.BookSnapshotService;
+import com.example.future_sur_taux.domain.Bond;
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.domain.Underlying;
+import com.example.future_sur_taux.domain.UnderlyingAsset;
+import com.example.future_sur_taux.pricing.MonteCarloMemo;
+import com.example.future_sur_taux.pricing.PricingContextFactory;
+import com.example.future_sur_taux.pricing.PricingResult;
+import com.example.future_sur_taux.pricing.PricingWriteBehind;
+import com.example.future_sur_taux.repository.FutureRepository;
+import com.example.future_sur_taux.tenant.TenantRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Revalorisation du carnet vivant. Le calcul se fait dans une transaction en lecture seule
+ * (aucun UPDATE par dirty-checking) ; les résultats partent au write-behind, qui les écrit en lots.
+ */
+@Slf4j
+@Service
+public class FutureRepricingService {
+
+    private final FutureRepository futureRepository;
+    private final FutureCalculationService calculationService;
+    private final PricingContextFactory pricingContextFactory;
+    private final PricingWriteBehind pricingWriteBehind;
+    private final PortfolioMarginService portfolioMarginService;
+    private final BookSnapshotService bookSnapshotService;
+    private final TenantRegistry tenantRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public FutureRepricingService(FutureRepository futureRepository,
+                                  FutureCalculationService calculationService,
+                                  PricingContextFactory pricingContextFactory,
+                                  PricingWriteBehind pricingWriteBehind,
+                                  PortfolioMarginService portfolioMarginService,
+                                  BookSnapshotService bookSnapshotService,
+                                  TenantRegistry tenantRegistry,
+                                  PlatformTransactionManager transactionManager) {
+        this.futureRepository = futureRepository;
+        this.calculationService = calculationService;
+        this.pricingContextFactory = pricingContextFactory;
+        this.pricingWriteBehind = pricingWriteBehind;
+        this.portfolioMarginService = portfolioMarginService;
+        this.bookSnapshotService = bookSnapshotService;
+        this.tenantRegistry = tenantRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Scheduled(cron = "${future.pricing.reprice-cron:-}")
+    public void repriceScheduled() {
+        LocalDate today = LocalDate.now();
+        // Appel interne : @Transactional ne s'applique pas, la transaction (et la session
+        // qui charge les coupons LAZY) est ouverte explicitement pour chaque tenant
+        tenantRegistry.forEachTenant(() -> readOnlyTransaction.executeWithoutResult(status -> repriceLiveBook(today)));
+    }
+
+    /**
+     * Revalorise le carnet du tenant courant.
+     * @return nombre de futures revalorisés
+     */
+    @Transactional(readOnly = true)
+    public int repriceLiveBook(LocalDate valuationDate) {
+        List<Future> futures = futureRepository.findLiveWithUnderlying(valuationDate);
+        List<Future> repriced = new ArrayList<>(futures.size());
+        MonteCarloMemo memo = new MonteCarloMemo();
+        for (Future future : futures) {
+            Bond bond = bondOf(future.getUnderlying());
+            if (bond == null) continue;
+            try {
+                calculationService.calculateAll(future, bond,
+                        pricingContextFactory.contextFor(valuationDate, future, bond), memo);
+            } catch (Exception e) {
+                log.warn("Revalorisation impossible du future {}", future.getId(), e);
+                continue;
+            }
+            pricingWriteBehind.submit(PricingResult.of(future));
+            portfolioMarginService.onFutureRepriced(future);
+            repriced.add(future);
+        }
+        // Une seule nouvelle version du carnet pour tout le lot
+        bookSnapshotService.publishUpserts(repriced);
+        log.info("{} futures revalorisés au {}", repriced.size(), valuationDate);
+        return repriced.size();
+    }
+
+    static Bond bondOf(Underlying underlying) {
+        Object unproxied = underlying != null ? Hibernate.unproxy(underlying) : null;
+        if (unproxied instanceof UnderlyingAsset ua) {
+            Object asset = ua.getAsset() != null ? Hibernate.unproxy(ua.getAsset()) : null;
+            if (asset instanceof Bond bond) return bond;
+        }
+        return null;
+    }
+}
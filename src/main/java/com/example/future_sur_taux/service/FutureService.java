@@ -1,35 +1,75 @@
 package com.example.future_sur_taux.service;
 
+import com.example.future_sur_taux.book.BookSnapshot;
+import com.example.future_sur_taux.book.BookSnapshotService;
+import com.example.future_sur_taux.book.BookView;
+import com.example.future_sur_taux.book.LiveFuture;
+import com.example.future_sur_taux.coalescing.SingleFlight;
 import com.example.future_sur_taux.domain.Future;
 import com.example.future_sur_taux.domain.Underlying;
 import com.example.future_sur_taux.domain.UnderlyingAsset;
 import com.example.future_sur_taux.domain.Bond;
 import com.example.future_sur_taux.dto.FutureCreationDTO;
 import com.example.future_sur_taux.dto.FutureDisplayDTO;
+import com.example.future_sur_taux.dto.FutureSearchCriteria;
+import com.example.future_sur_taux.dto.FutureSummaryDTO;
+import com.example.future_sur_taux.dto.PageDTO;
+import com.example.future_sur_taux.pricing.MonteCarloResult;
+import com.example.future_sur_taux.profiling.FutureCreationEvent;
+import com.example.future_sur_taux.profiling.FutureDisplayEvent;
+import com.example.future_sur_taux.quote.QuoteReplicaCache;
 import com.example.future_sur_taux.repository.FutureRepository;
+import com.example.future_sur_taux.repository.FutureSpecifications;
 import com.example.future_sur_taux.repository.UnderlyingRepository;
 import com.example.future_sur_taux.domain.enumeration.DepositType;
 import com.example.future_sur_taux.domain.enumeration.CollateralMethod;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class FutureService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final FutureRepository futureRepository;
     private final UnderlyingRepository underlyingRepository;
     private final FutureCalculationService calculationService;
+    private final InstrumentLookupIndex instrumentLookupIndex;
+    // Présent uniquement en mode cluster (quotes.cluster.enabled=true)
+    private final ObjectProvider<QuoteReplicaCache> quoteReplicaCache;
+    // Les affichages simultanés partagent une seule lecture base + cotations
+    private final SingleFlight<LocalDate, BookView<List<FutureDisplayDTO>>> displayFlight;
+    private final BookSnapshotService bookSnapshotService;
+    private final FutureLifecycleScheduler lifecycleScheduler;
 
     @Autowired
     private FinnhubService finnhubService;
 
     public Future createFutureFromDTO(FutureCreationDTO dto) {
+        FutureCreationEvent event = new FutureCreationEvent();
+        event.begin();
+        event.symbol = dto.getSymbol();
+        event.underlyingId = dto.getUnderlyingId() != null ? dto.getUnderlyingId() : 0;
+        try {
+            Future saved = saveNewFuture(dto);
+            event.futureId = saved.getId();
+            return saved;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private Future saveNewFuture(FutureCreationDTO dto) {
         Future future = new Future();
         future.setSymbol(dto.getSymbol());
         future.setDescription(dto.getDescription());
@@ -66,56 +106,125 @@ public class FutureService {
             }
         }
 
-        return futureRepository.save(future);
+        Future saved = futureRepository.save(future);
+        instrumentLookupIndex.addFuture(saved);
+        bookSnapshotService.publishUpserts(List.of(saved));
+        lifecycleScheduler.schedule(saved);
+        displayFlight.invalidateAll();
+        return saved;
     }
 
 
     public List<FutureDisplayDTO> getAllFuturesForDisplay() {
-        List<Future> futures = futureRepository.findAll();
-        String[] symbols = futures.stream().map(Future::getSymbol).distinct().toArray(String[]::new);
+        return getDisplayView().data();
+    }
 
-        Map<String, BigDecimal> marketPrices = finnhubService.getMarketPrices(symbols);
+    /**
+     * Écran d'affichage lu dans l'instantané du carnet, avec la version de celui-ci.
+     */
+    public BookView<List<FutureDisplayDTO>> getDisplayView() {
+        FutureDisplayEvent event = new FutureDisplayEvent();
+        event.begin();
+        BookView<List<FutureDisplayDTO>> view = displayFlight.get(LocalDate.now(), () -> {
+            event.computed = true;
+            return loadFuturesForDisplay(event);
+        });
+        event.rows = view.data().size();
+        event.commit();
+        return view;
+    }
 
-        return futures.stream()
-                .map(f -> toDTO(f, marketPrices.get(f.getSymbol())))
-                .collect(Collectors.toList());
+    private BookView<List<FutureDisplayDTO>> loadFuturesForDisplay(FutureDisplayEvent event) {
+        BookSnapshot snapshot = bookSnapshotService.current();
+        LocalDate today = LocalDate.now();
+        List<LiveFuture> futures = snapshot.futures().stream().filter(f -> f.isLive(today)).toList();
+        String[] symbols = futures.stream().map(LiveFuture::symbol).distinct().toArray(String[]::new);
+        event.symbols = symbols.length;
+
+        QuoteReplicaCache replica = quoteReplicaCache.getIfAvailable();
+        Map<String, BigDecimal> marketPrices = replica != null
+                ? replica.getPrices(symbols)
+                : finnhubService.getMarketPrices(symbols);
+
+        List<FutureDisplayDTO> rows = futures.stream()
+                .map(f -> toDTO(f, marketPrices.get(f.symbol())))
+                .toList();
+        return new BookView<>(snapshot.getVersion(), rows);
     }
 
 
 
 
-    private FutureDisplayDTO toDTO(Future future, BigDecimal marketPrice) {
+    /**
+     * Recherche multicritère paginée, triée par maturité puis id (index idx_future_maturity).
+     */
+    public PageDTO<FutureSummaryDTO> searchFutures(FutureSearchCriteria criteria) {
+        int size = Math.min(Math.max(criteria.getSize(), 1), MAX_PAGE_SIZE);
+        PageRequest pageable = PageRequest.of(Math.max(criteria.getPage(), 0), size,
+                Sort.by("maturityDate", "id"));
+
+        return PageDTO.of(futureRepository
+                .findAll(FutureSpecifications.matching(criteria, LocalDate.now()), pageable)
+                .map(this::toSummaryDTO));
+    }
+
+    /**
+     * Diagnostics de convergence du Monte Carlo pour un future sur obligation à taux variable (null sinon).
+     */
+    @Transactional(readOnly = true)
+    public MonteCarloResult getMonteCarloDiagnostics(Long futureId) {
+        Future future = futureRepository.findById(futureId)
+                .orElseThrow(() -> new RuntimeException("Future not found with ID: " + futureId));
+        return calculationService.monteCarloDiagnostics(future, FutureRepricingService.bondOf(future.getUnderlying()));
+    }
+
+    private FutureSummaryDTO toSummaryDTO(Future future) {
+        return new FutureSummaryDTO(
+                future.getId(),
+                future.getSymbol(),
+                future.getIsin(),
+                future.getParentTicker(),
+                future.getSegment(),
+                future.getTradingCurrency(),
+                future.getMaturityDate(),
+                future.getLastTradingDate(),
+                future.getTheoreticalPrice(),
+                future.getInstrumentStatus(),
+                // getId() sur le proxy LAZY ne déclenche pas de chargement
+                future.getUnderlying() != null ? future.getUnderlying().getId() : null
+        );
+    }
+
+    private FutureDisplayDTO toDTO(LiveFuture future, BigDecimal marketPrice) {
         FutureDisplayDTO dto = new FutureDisplayDTO();
-        dto.setId(future.getId());
-        dto.setSymbol(future.getSymbol());
-        dto.setDescription(future.getDescription());
-        dto.setIsin(future.getIsin());
-        dto.setParentTicker(future.getParentTicker());
-        dto.setFirstTradingDate(future.getFirstTradingDate());
-        dto.setLastTradingDate(future.getLastTradingDate());
-        dto.setMaturityDate(future.getMaturityDate());
-        dto.setTickSize(future.getTickSize());
-        dto.setTickValue(future.getTickValue());
-        dto.setTradingCurrency(future.getTradingCurrency());
-        dto.setLotSize(future.getLotSize());
-        dto.setContractMultiplier(future.getContractMultiplier());
-        dto.setPercentageMargin(future.getPercentageMargin());
-        dto.setTheoreticalPrice(future.getTheoreticalPrice());
-        dto.setContractValue(future.getContractValue());
-        dto.setInitialMarginAmount(future.getInitialMarginAmount());
-        dto.setInstrumentStatus(future.getInstrumentStatus());
-        dto.setDepositType(future.getDepositType());
-
-        if (future.getUnderlying() != null) {
-            dto.setUnderlyingId(future.getUnderlying().getId());
-            dto.setUnderlyingIdentifier(future.getUnderlying().getIdentifier());
-            dto.setUnderlyingType(future.getUnderlying().getUnderlyingType().name());
-        }
+        dto.setId(future.id());
+        dto.setSymbol(future.symbol());
+        dto.setDescription(future.description());
+        dto.setIsin(future.isin());
+        dto.setParentTicker(future.parentTicker());
+        dto.setFirstTradingDate(future.firstTradingDate());
+        dto.setLastTradingDate(future.lastTradingDate());
+        dto.setMaturityDate(future.maturityDate());
+        dto.setTickSize(future.tickSize());
+        dto.setTickValue(future.tickValue());
+        dto.setTradingCurrency(future.tradingCurrency());
+        dto.setLotSize(future.lotSize());
+        dto.setContractMultiplier(future.contractMultiplier());
+        dto.setPercentageMargin(future.percentageMargin());
+        dto.setTheoreticalPrice(future.theoreticalPrice());
+        dto.setContractValue(future.contractValue());
+        dto.setInitialMarginAmount(future.initialMarginAmount());
+        dto.setInstrumentStatus(future.instrumentStatus());
+        dto.setDepositType(future.depositType());
+
+        dto.setUnderlyingId(future.underlyingId());
+        dto.setUnderlyingIdentifier(future.underlyingIdentifier());
+        dto.setUnderlyingType(future.underlyingType());
 
         dto.setMarketPrice(marketPrice);
 
-        if (marketPrice != null && future.getTheoreticalPrice() != null) {
-            int cmp = marketPrice.compareTo(future.getTheoreticalPrice());
+        if (marketPrice != null && future.theoreticalPrice() != null) {
+            int cmp = marketPrice.compareTo(future.theoreticalPrice());
             if (cmp > 0) dto.setEvaluation("SUREVALUE");
             else if (cmp < 0) dto.setEvaluation("SOUS-EVALUEE");
             else dto.setEvaluation("EGAL");
@@ -0,0 +1,254 @@
+package com.example.future_sur_taux.service;
+
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.dto.InstrumentSuggestionDTO;
+import com.example.future_sur_taux.repository.FutureLookupRow;
+import com.example.future_sur_taux.repository.FutureRepository;
+import com.example.future_sur_taux.repository.UnderlyingLookupRow;
+import com.example.future_sur_taux.repository.UnderlyingRepository;
+import com.example.future_sur_taux.tenant.TenantRegistry;
+import com.example.future_sur_taux.tenant.TenantScoped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Index en mémoire des identifiants d'instruments (symbol / isin / parentTicker des futures,
+ * identifier des sous-jacents) pour l'autocomplétion par préfixe.
+ *
+ * Les clés sont stockées en majuscules, internées, dans des tableaux triés parallèles :
+ * une recherche est une dichotomie suivie d'un parcours séquentiel. Les écritures recopient
+ * les tableaux et publient une nouvelle version ; les lectures ne prennent aucun verrou.
+ * Un index par tenant.
+ *
+ * Le chargement lit la base hors verrou : les écritures arrivées pendant ce temps sont
+ * journalisées puis rejouées sur l'index chargé, sans quoi elles seraient perdues.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InstrumentLookupIndex {
+
+    public enum KeyType {
+        FUTURE_SYMBOL,
+        FUTURE_ISIN,
+        FUTURE_PARENT_TICKER,
+        UNDERLYING_IDENTIFIER;
+
+        boolean isFuture() {
+            return this != UNDERLYING_IDENTIFIER;
+        }
+    }
+
+    private static final KeyType[] KEY_TYPES = KeyType.values();
+
+    private final FutureRepository futureRepository;
+    private final UnderlyingRepository underlyingRepository;
+    private final TenantRegistry tenantRegistry;
+
+    private final TenantScoped<Index> indexes = new TenantScoped<>(Index::new);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        tenantRegistry.forEachTenant(this::load);
+    }
+
+    /**
+     * Charge l'index du tenant courant.
+     */
+    public void load() {
+        Index index = indexes.get();
+        synchronized (index) {
+            index.duringLoad = new ArrayList<>();
+        }
+        List<Entry> all = new ArrayList<>();
+        for (FutureLookupRow row : futureRepository.findLiveLookupRows(LocalDate.now())) {
+            addFutureKeys(all, row.getId(), row.getSymbol(), row.getIsin(), row.getParentTicker());
+        }
+        for (UnderlyingLookupRow row : underlyingRepository.findLookupRows()) {
+            addKey(all, row.getIdentifier(), KeyType.UNDERLYING_IDENTIFIER, row.getId());
+        }
+        all.sort(Entry.ORDER);
+
+        int replayed;
+        synchronized (index) {
+            Entries loaded = Entries.of(all);
+            for (UnaryOperator<Entries> write : index.duringLoad) loaded = write.apply(loaded);
+            replayed = index.duringLoad.size();
+            index.duringLoad = null;
+            index.entries.set(loaded);
+        }
+        log.info("Index d'instruments chargé : {} clés, {} écritures rejouées", all.size(), replayed);
+    }
+
+    /**
+     * Suggestions dont la clé commence par le préfixe (insensible à la casse), dans l'ordre lexicographique.
+     */
+    public List<InstrumentSuggestionDTO> autocomplete(String prefix, Set<KeyType> types, int limit) {
+        if (prefix == null || prefix.isBlank() || limit <= 0) return List.of();
+        String p = prefix.trim().toUpperCase(Locale.ROOT);
+        Entries current = indexes.get().entries.get();
+
+        List<InstrumentSuggestionDTO> result = new ArrayList<>(Math.min(limit, 32));
+        for (int i = current.lowerBound(p); i < current.size && result.size() < limit; i++) {
+            String key = current.keys[i];
+            if (!key.startsWith(p)) break;
+            KeyType type = KEY_TYPES[current.types[i]];
+            if (types == null || types.isEmpty() || types.contains(type)) {
+                result.add(new InstrumentSuggestionDTO(key, type.name(), current.ids[i]));
+            }
+        }
+        return result;
+    }
+
+    public void addFuture(Future future) {
+        if (future == null || future.getId() == null) return;
+        List<Entry> added = new ArrayList<>(3);
+        addFutureKeys(added, future.getId(), future.getSymbol(), future.getIsin(), future.getParentTicker());
+        added.sort(Entry.ORDER);
+        long id = future.getId();
+
+        // Remplace les clés existantes du future : rejouer l'écriture sur un index qui l'a déjà lue est sans effet
+        apply(e -> e.without(i -> KEY_TYPES[e.types[i]].isFuture() && e.ids[i] == id).merge(added));
+    }
+
+    public void removeFutures(Collection<Long> futureIds) {
+        if (futureIds == null || futureIds.isEmpty()) return;
+        Set<Long> ids = new HashSet<>(futureIds);
+        apply(e -> e.without(i -> KEY_TYPES[e.types[i]].isFuture() && ids.contains(e.ids[i])));
+    }
+
+    public int size() {
+        return indexes.get().entries.get().size;
+    }
+
+    private void apply(UnaryOperator<Entries> write) {
+        Index index = indexes.get();
+        synchronized (index) {
+            index.entries.set(write.apply(index.entries.get()));
+            if (index.duringLoad != null) index.duringLoad.add(write);
+        }
+    }
+
+    private static void addFutureKeys(List<Entry> target, Long id, String symbol, String isin, String parentTicker) {
+        addKey(target, symbol, KeyType.FUTURE_SYMBOL, id);
+        addKey(target, isin, KeyType.FUTURE_ISIN, id);
+        addKey(target, parentTicker, KeyType.FUTURE_PARENT_TICKER, id);
+    }
+
+    private static void addKey(List<Entry> target, String raw, KeyType type, Long id) {
+        if (raw == null || raw.isBlank() || id == null) return;
+        // intern() : un parentTicker partagé par toute une chaîne d'échéances n'est stocké qu'une fois
+        target.add(new Entry(raw.trim().toUpperCase(Locale.ROOT).intern(), (byte) type.ordinal(), id));
+    }
+
+    /**
+     * Index d'un tenant ; duringLoad n'est non null que pendant un chargement.
+     */
+    private static final class Index {
+        final AtomicReference<Entries> entries = new AtomicReference<>(Entries.EMPTY);
+        List<UnaryOperator<Entries>> duringLoad;
+    }
+
+    record Entry(String key, byte type, long id) {
+        static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key)
+                .thenComparingInt(Entry::type)
+                .thenComparingLong(Entry::id);
+    }
+
+    /**
+     * Version immuable de l'index : trois tableaux parallèles triés par (clé, type, id).
+     */
+    static final class Entries {
+        static final Entries EMPTY = new Entries(new String[0], new byte[0], new long[0], 0);
+
+        final String[] keys;
+        final byte[] types;
+        final long[] ids;
+        final int size;
+
+        Entries(String[] keys, byte[] types, long[] ids, int size) {
+            this.keys = keys;
+            this.types = types;
+            this.ids = ids;
+            this.size = size;
+        }
+
+        static Entries of(List<Entry> sorted) {
+            int n = sorted.size();
+            String[] keys = new String[n];
+            byte[] types = new byte[n];
+            long[] ids = new long[n];
+            for (int i = 0; i < n; i++) {
+                Entry e = sorted.get(i);
+                keys[i] = e.key();
+                types[i] = e.type();
+                ids[i] = e.id();
+            }
+            return new Entries(keys, types, ids, n);
+        }
+
+        Entry get(int i) {
+            return new Entry(keys[i], types[i], ids[i]);
+        }
+
+        /** Premier indice dont la clé est >= prefix. */
+        int lowerBound(String prefix) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        /** Fusion de deux suites triées. */
+        Entries merge(List<Entry> sortedAdded) {
+            if (sortedAdded.isEmpty()) return this;
+            int n = size + sortedAdded.size();
+            String[] k = new String[n];
+            byte[] t = new byte[n];
+            long[] id = new long[n];
+            int i = 0, j = 0, out = 0;
+            while (i < size || j < sortedAdded.size()) {
+                if (j >= sortedAdded.size() || (i < size && Entry.ORDER.compare(get(i), sortedAdded.get(j)) <= 0)) {
+                    k[out] = keys[i];
+                    t[out] = types[i];
+                    id[out] = ids[i];
+                    i++;
+                } else {
+                    Entry next = sortedAdded.get(j++);
+                    k[out] = next.key();
+                    t[out] = next.type();
+                    id[out] = next.id();
+                }
+                out++;
+            }
+            return new Entries(k, t, id, n);
+        }
+
+        Entries without(IntPredicate removed) {
+            String[] k = new String[size];
+            byte[] t = new byte[size];
+            long[] id = new long[size];
+            int out = 0;
+            for (int i = 0; i < size; i++) {
+                if (removed.test(i)) continue;
+                k[out] = keys[i];
+                t[out] = types[i];
+                id[out] = ids[i];
+                out++;
+            }
+            return out == size ? this : new Entries(Arrays.copyOf(k, out), Arrays.copyOf(t, out), Arrays.copyOf(id, out), out);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.future_sur_taux.service;
+
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.domain.Position;
+import com.example.future_sur_taux.dto.AccountMarginDTO;
+import com.example.future_sur_taux.dto.PositionDTO;
+import com.example.future_sur_taux.margin.ContractRiskArray;
+import com.example.future_sur_taux.margin.PortfolioMarginEngine;
+import com.example.future_sur_taux.repository.FutureRepository;
+import com.example.future_sur_taux.repository.PositionRepository;
+import com.example.future_sur_taux.tenant.TenantRegistry;
+import com.example.future_sur_taux.tenant.TenantScoped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Positions par compte et marge de portefeuille : persiste la position puis met à jour
+ * le moteur de façon incrémentale.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PortfolioMarginService {
+
+    private final PositionRepository positionRepository;
+    private final FutureRepository futureRepository;
+    private final PortfolioMarginEngine marginEngine;
+    private final TenantRegistry tenantRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    // Paramètres de risque par future, partagés par tous les comptes du tenant
+    private final TenantScoped<Map<Long, ContractRiskArray>> riskArrays = new TenantScoped<>(ConcurrentHashMap::new);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        tenantRegistry.forEachTenant(() -> transactionTemplate.executeWithoutResult(status -> load()));
+    }
+
+    private void load() {
+        List<Position> positions = positionRepository.findAll();
+        List<Long> futureIds = positions.stream().map(Position::getFutureId).distinct().toList();
+        Map<Long, Future> futures = futureRepository.findAllById(futureIds).stream()
+                .collect(Collectors.toMap(Future::getId, Function.identity()));
+
+        marginEngine.clear();
+        int loaded = 0;
+        for (Position position : positions) {
+            Future future = futures.get(position.getFutureId());
+            if (future == null) continue; // future archivé : plus de risque à couvrir
+            marginEngine.applyPosition(position.getAccountId(), riskArray(future), position.getQuantity());
+            loaded++;
+        }
+        log.info("Moteur de marge chargé : {} positions, {} comptes", loaded, marginEngine.accountCount());
+    }
+
+    /**
+     * Persiste la position ; le moteur n'est mis à jour qu'une fois la transaction validée,
+     * pour ne jamais diverger de la table position en cas de rollback.
+     */
+    public AccountMarginDTO setPosition(String accountId, PositionDTO dto) {
+        transactionTemplate.executeWithoutResult(status -> savePosition(accountId, dto));
+        return marginEngine.margin(accountId);
+    }
+
+    private void savePosition(String accountId, PositionDTO dto) {
+        Long futureId = dto.getFutureId();
+        long quantity = dto.getQuantity() != null ? dto.getQuantity() : 0L;
+        Map<Long, ContractRiskArray> tenantRiskArrays = riskArrays.get();
+        ContractRiskArray contract = tenantRiskArrays.containsKey(futureId)
+                ? tenantRiskArrays.get(futureId)
+                : riskArray(futureRepository.findById(futureId)
+                        .orElseThrow(() -> new RuntimeException("Future not found with ID: " + futureId)));
+
+        Position position = positionRepository.findByAccountIdAndFutureId(accountId, futureId)
+                .orElseGet(() -> Position.builder().accountId(accountId).futureId(futureId).build());
+        if (quantity == 0) {
+            if (position.getId() != null) positionRepository.delete(position);
+        } else {
+            position.setQuantity(quantity);
+            position.setUpdatedAt(LocalDateTime.now());
+            positionRepository.save(position);
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                marginEngine.applyPosition(accountId, contract, quantity);
+            }
+        });
+    }
+
+    public List<PositionDTO> getPositions(String accountId) {
+        return positionRepository.findByAccountId(accountId).stream()
+                .map(p -> new PositionDTO(p.getFutureId(), p.getQuantity()))
+                .toList();
+    }
+
+    public AccountMarginDTO getMargin(String accountId) {
+        return marginEngine.margin(accountId);
+    }
+
+    /**
+     * À appeler après recalcul de contractValue / percentageMargin d'un future.
+     */
+    public void onFutureRepriced(Future future) {
+        if (future == null || future.getId() == null) return;
+        ContractRiskArray contract = ContractRiskArray.of(future);
+        riskArrays.get().put(future.getId(), contract);
+        marginEngine.onContractRepriced(contract);
+    }
+
+    private ContractRiskArray riskArray(Future future) {
+        return riskArrays.get().computeIfAbsent(future.getId(), id -> ContractRiskArray.of(future));
+    }
+}
@@ -0,0 +1,428 @@
+package com.example.future_sur_taux.service;
+
+import com.example.future_sur_taux.domain.Bond;
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.domain.FutureArchive;
+import com.example.future_sur_taux.domain.Underlying;
+import com.example.future_sur_taux.domain.enumeration.DayBase;
+import com.example.future_sur_taux.domain.enumeration.RateType;
+import com.example.future_sur_taux.dto.BackfillStatusDTO;
+import com.example.future_sur_taux.pricing.BondPriceHistory;
+import com.example.future_sur_taux.pricing.MonteCarloMemo;
+import com.example.future_sur_taux.pricing.PriceHistoryMonth;
+import com.example.future_sur_taux.pricing.PricingContext;
+import com.example.future_sur_taux.pricing.PricingContextFactory;
+import com.example.future_sur_taux.pricing.PricingProperties;
+import com.example.future_sur_taux.repository.FutureArchiveRepository;
+import com.example.future_sur_taux.repository.FutureRepository;
+import com.example.future_sur_taux.repository.UnderlyingRepository;
+import com.example.future_sur_taux.tenant.TenantContext;
+import com.example.future_sur_taux.tenant.TenantRegistry;
+import com.example.future_sur_taux.tenant.TenantScoped;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+
+/**
+ * Reconstitution de l'historique des prix théoriques sur une plage de dates passées.
+ *
+ * Chaque future est revalorisé à chaque date où il était négociable, avec le prix clean de son
+ * obligation à cette date (bond_price_history, dernier prix connu) et les coupons restant à payer
+ * à cette date. Les futures sont traités par lots (pricing.backfill.chunk-size) ; dans un lot,
+ * chaque mois est réparti par date sur les cœurs, puis écrit en une ligne par future dans
+ * future_price_history (un tableau de prix par mois). Une réécriture ne remplace que les jours
+ * recalculés : la ligne existante est relue et fusionnée ({@link PriceHistoryMonth#mergedWith}).
+ * Un seul backfill à la fois par tenant, exécuté en arrière-plan, ce qui rend cette relecture sûre.
+ *
+ * Les contrats échus sont archivés puis supprimés de future : le backfill parcourt donc aussi
+ * future_archive (ligne complète, {@link FutureArchive#toFuture}), après les contrats vivants.
+ *
+ * Les obligations à taux variable ne sont valorisées qu'à la date du jour : aucun historique des
+ * fixings de l'indice n'est conservé, et simuler une date passée depuis l'indexRate courant ne
+ * donnerait pas le prix de cette date. Elles sont ignorées aux dates passées, comme les obligations
+ * à taux fixe sans prix historique.
+ */
+@Slf4j
+@Service
+public class PriceHistoryBackfillService {
+
+    private static final String HISTORY_SQL =
+            "select h.bond_id, h.price_date, h.clean_price from bond_price_history h " +
+            "where h.bond_id = any(?) and h.price_date <= ? " +
+            "and h.price_date >= coalesce((select max(p.price_date) from bond_price_history p " +
+            "where p.bond_id = h.bond_id and p.price_date <= ?), ?)";
+
+    private static final String EXISTING_SQL =
+            "select future_id, prices from future_price_history where period_start = ? and future_id = any(?)";
+
+    // La ligne écrite est déjà fusionnée avec l'existante
+    private static final String UPSERT_SQL =
+            "insert into future_price_history (future_id, period_start, prices) values (?, ?, ?) " +
+            "on conflict (future_id, period_start) do update set prices = excluded.prices";
+
+    private static final String SNAPSHOT_SQL =
+            "insert into bond_price_history (bond_id, price_date, clean_price) " +
+            "select id, ?, underlying_price from bond where underlying_price is not null " +
+            "on conflict (bond_id, price_date) do update set clean_price = excluded.clean_price";
+
+    private final FutureRepository futureRepository;
+    private final FutureArchiveRepository futureArchiveRepository;
+    private final UnderlyingRepository underlyingRepository;
+    private final FutureCalculationService calculationService;
+    private final PricingContextFactory pricingContextFactory;
+    private final TenantRegistry tenantRegistry;
+    private final TransactionTemplate readOnlyTransaction;
+    private final PricingProperties.Backfill settings;
+    private final ForkJoinPool pool;
+    private final ExecutorService jobs;
+
+    private final TenantScoped<AtomicReference<Job>> currentJob = new TenantScoped<>(AtomicReference::new);
+
+    public PriceHistoryBackfillService(FutureRepository futureRepository,
+                                       FutureArchiveRepository futureArchiveRepository,
+                                       UnderlyingRepository underlyingRepository,
+                                       FutureCalculationService calculationService,
+                                       PricingContextFactory pricingContextFactory,
+                                       TenantRegistry tenantRegistry,
+                                       PlatformTransactionManager transactionManager,
+                                       PricingProperties properties) {
+        this.futureRepository = futureRepository;
+        this.futureArchiveRepository = futureArchiveRepository;
+        this.underlyingRepository = underlyingRepository;
+        this.calculationService = calculationService;
+        this.pricingContextFactory = pricingContextFactory;
+        this.tenantRegistry = tenantRegistry;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.settings = properties.getBackfill();
+        this.pool = new ForkJoinPool(Math.max(1, settings.getParallelism()));
+        // Au plus un backfill par tenant
+        this.jobs = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "price-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ---------------- Historique des prix d'obligations ----------------
+
+    @Scheduled(cron = "${pricing.backfill.bond-price-snapshot-cron:0 45 23 * * *}")
+    public void snapshotBondPrices() {
+        LocalDate today = LocalDate.now();
+        tenantRegistry.forEachTenant(() -> recordBondPrices(today));
+    }
+
+    /**
+     * Enregistre le prix clean courant de chaque obligation du tenant courant à la date donnée.
+     */
+    public int recordBondPrices(LocalDate date) {
+        int recorded = jdbcTemplate().update(SNAPSHOT_SQL, Date.valueOf(date));
+        log.info("{} prix d'obligations historisés au {}", recorded, date);
+        return recorded;
+    }
+
+    // ---------------- Backfill ----------------
+
+    /**
+     * Lance le backfill de [from ; to] pour le tenant courant.
+     * @throws IllegalArgumentException plage invalide
+     * @throws IllegalStateException un backfill est déjà en cours pour ce tenant
+     */
+    public BackfillStatusDTO start(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid backfill range: " + from + " - " + to);
+        }
+        if (to.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Backfill range must end today or earlier: " + to);
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > settings.getMaxDays()) {
+            throw new IllegalArgumentException("Backfill range longer than " + settings.getMaxDays() + " days");
+        }
+
+        String tenant = TenantContext.current();
+        AtomicReference<Job> current = currentJob.get();
+        Job job = new Job(from, to);
+        synchronized (current) {
+            Job running = current.get();
+            if (running != null && running.finishedAt == null) {
+                throw new IllegalStateException("Backfill already running for " + running.from + " - " + running.to);
+            }
+            current.set(job);
+        }
+        jobs.execute(() -> TenantContext.runAs(tenant, () -> run(job)));
+        return job.toStatus();
+    }
+
+    /**
+     * État du dernier backfill du tenant courant (null si aucun).
+     */
+    public BackfillStatusDTO status() {
+        Job job = currentJob.get().get();
+        return job != null ? job.toStatus() : null;
+    }
+
+    private void run(Job job) {
+        long start = System.currentTimeMillis();
+        try {
+            backfill(job);
+            job.finish(null);
+            log.info("Backfill {} - {} terminé : {} futures, {} prix en {} s", job.from, job.to,
+                    job.futuresProcessed.get(), job.pricesWritten.get(), (System.currentTimeMillis() - start) / 1000);
+        } catch (RuntimeException e) {
+            job.finish(e);
+            log.error("Échec du backfill {} - {}", job.from, job.to, e);
+        }
+    }
+
+    private void backfill(Job job) {
+        backfill(job, afterId -> futureRepository.findTradedBetween(job.from, job.to, afterId,
+                PageRequest.of(0, settings.getChunkSize())));
+        backfill(job, afterId -> archivedTradedBetween(job.from, job.to, afterId));
+    }
+
+    /**
+     * Parcourt une source de futures par lots ordonnés sur l'id.
+     */
+    private void backfill(Job job, LongFunction<List<Future>> page) {
+        long afterId = 0;
+        while (true) {
+            long after = afterId;
+            Chunk chunk = readOnlyTransaction.execute(status -> loadChunk(page.apply(after), job.from, job.to));
+            if (chunk == null || chunk.futures().isEmpty()) return;
+
+            for (YearMonth month : PriceHistoryMonth.monthsBetween(job.from, job.to)) {
+                job.pricesWritten.addAndGet(backfillMonth(chunk, month, job.from, job.to));
+            }
+            job.futuresProcessed.addAndGet(chunk.futures().size());
+            if (chunk.futures().size() < settings.getChunkSize()) return;
+            afterId = chunk.futures().get(chunk.futures().size() - 1).getId();
+        }
+    }
+
+    /**
+     * Futures du lot, leur obligation (échéancier chargé, utilisée ensuite hors session) et
+     * l'historique des prix clean couvrant la plage.
+     */
+    private Chunk loadChunk(List<Future> futures, LocalDate from, LocalDate to) {
+        Bond[] bonds = new Bond[futures.size()];
+        Set<Long> bondIds = new LinkedHashSet<>();
+        for (int i = 0; i < bonds.length; i++) {
+            Bond bond = FutureRepricingService.bondOf(futures.get(i).getUnderlying());
+            if (bond == null) continue;
+            Hibernate.initialize(bond.getFutureCoupons());
+            bonds[i] = bond;
+            bondIds.add(bond.getId());
+        }
+        return new Chunk(futures, bonds, priceHistory(bondIds, from, to));
+    }
+
+    /**
+     * Contrats archivés du lot, reconstitués avec leur sous-jacent (id = id d'origine dans future).
+     */
+    private List<Future> archivedTradedBetween(LocalDate from, LocalDate to, long afterId) {
+        List<FutureArchive> archived = futureArchiveRepository.findTradedBetween(from, to, afterId,
+                PageRequest.of(0, settings.getChunkSize()));
+        Set<Long> underlyingIds = new HashSet<>();
+        for (FutureArchive archive : archived) {
+            if (archive.getUnderlyingId() != null) underlyingIds.add(archive.getUnderlyingId());
+        }
+        Map<Long, Underlying> underlyings = new HashMap<>();
+        for (Underlying underlying : underlyingRepository.findAllById(underlyingIds)) {
+            underlyings.put(underlying.getId(), underlying);
+        }
+        return archived.stream().map(archive -> archive.toFuture(underlyings.get(archive.getUnderlyingId()))).toList();
+    }
+
+    private BondPriceHistory priceHistory(Set<Long> bondIds, LocalDate from, LocalDate to) {
+        BondPriceHistory.Builder history = BondPriceHistory.builder();
+        if (bondIds.isEmpty()) return history.build();
+        jdbcTemplate().query(HISTORY_SQL,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("int8", bondIds.toArray()));
+                    ps.setDate(2, Date.valueOf(to));
+                    ps.setDate(3, Date.valueOf(from));
+                    ps.setDate(4, Date.valueOf(from));
+                },
+                rs -> {
+                    history.add(rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getBigDecimal(3));
+                });
+        return history.build();
+    }
+
+    /**
+     * Valorise les jours du mois compris dans [from ; to], une tâche par date, puis écrit le mois.
+     * @return nombre de prix écrits
+     */
+    private long backfillMonth(Chunk chunk, YearMonth month, LocalDate from, LocalDate to) {
+        PriceHistoryMonth prices = new PriceHistoryMonth(month, from, to, chunk.futures().size());
+        LocalDate today = LocalDate.now();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (LocalDate day = prices.firstDay(); !day.isAfter(prices.lastDay()); day = day.plusDays(1)) {
+            LocalDate valuationDate = day;
+            tasks.add(() -> {
+                priceDay(chunk, valuationDate, today, prices);
+                return null;
+            });
+        }
+        try {
+            // Chaque date écrit sa propre colonne : pas de partage entre tâches
+            for (java.util.concurrent.Future<Void> task : pool.invokeAll(tasks)) task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Backfill interrompu", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec du backfill du mois " + month, e.getCause());
+        }
+        return write(chunk.futures(), prices);
+    }
+
+    private void priceDay(Chunk chunk, LocalDate day, LocalDate today, PriceHistoryMonth prices) {
+        // Contextes propres à la date : le cache partagé est réservé aux valorisations du jour
+        Map<ContextKey, PricingContext> contexts = new HashMap<>();
+        MonteCarloMemo memo = new MonteCarloMemo();
+        for (int i = 0; i < prices.futureCount(); i++) {
+            Future future = chunk.futures().get(i);
+            Bond bond = chunk.bonds()[i];
+            if (bond == null || !tradedOn(future, day)) continue;
+            boolean variableRate = bond.getRateType() == RateType.VARIABLE_RATE;
+            // Pas de fixing historique : un taux variable n'est valorisable qu'au jour même
+            if (variableRate && day.isBefore(today)) continue;
+            BigDecimal cleanPrice = chunk.history().asOf(bond.getId(), day);
+            if (cleanPrice == null && !variableRate) continue;
+
+            PricingContext context = contexts.computeIfAbsent(new ContextKey(bond.getDayBase(), future.getCalendarId()),
+                    k -> pricingContextFactory.newContext(day, k.dayBase(), k.calendarId()));
+            try {
+                BigDecimal price = calculationService.theoreticalPrice(future, bond, cleanPrice, context,
+                        settings.getMonteCarloPaths(), memo);
+                if (price != null) prices.set(i, day, price.doubleValue());
+            } catch (RuntimeException e) {
+                log.debug("Backfill impossible du future {} au {}", future.getId(), day, e);
+            }
+        }
+    }
+
+    private static boolean tradedOn(Future future, LocalDate day) {
+        return (future.getFirstTradingDate() == null || !future.getFirstTradingDate().isAfter(day))
+                && (future.getLastTradingDate() == null || !future.getLastTradingDate().isBefore(day));
+    }
+
+    private long write(List<Future> futures, PriceHistoryMonth prices) {
+        List<Integer> rows = new ArrayList<>();
+        long count = 0;
+        for (int i = 0; i < prices.futureCount(); i++) {
+            int n = prices.count(i);
+            if (n == 0) continue;
+            rows.add(i);
+            count += n;
+        }
+        if (rows.isEmpty()) return 0;
+
+        Date period = Date.valueOf(prices.periodStart());
+        Map<Long, Double[]> existing = existingRows(period, rows.stream().map(i -> futures.get(i).getId()).toArray());
+        jdbcTemplate().batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int index) throws SQLException {
+                Long futureId = futures.get(rows.get(index)).getId();
+                ps.setLong(1, futureId);
+                ps.setDate(2, period);
+                ps.setArray(3, ps.getConnection().createArrayOf("float8",
+                        prices.mergedWith(rows.get(index), existing.get(futureId))));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        return count;
+    }
+
+    private Map<Long, Double[]> existingRows(Date period, Object[] futureIds) {
+        Map<Long, Double[]> existing = new HashMap<>();
+        jdbcTemplate().query(EXISTING_SQL,
+                ps -> {
+                    ps.setDate(1, period);
+                    ps.setArray(2, ps.getConnection().createArrayOf("int8", futureIds));
+                },
+                rs -> {
+                    existing.put(rs.getLong(1), (Double[]) rs.getArray(2).getArray());
+                });
+        return existing;
+    }
+
+    private JdbcTemplate jdbcTemplate() {
+        return tenantRegistry.jdbcTemplate(TenantContext.current());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private record Chunk(List<Future> futures, Bond[] bonds, BondPriceHistory history) {
+    }
+
+    private record ContextKey(DayBase dayBase, String calendarId) {
+    }
+
+    private static final class Job {
+        final LocalDate from;
+        final LocalDate to;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong futuresProcessed = new AtomicLong();
+        final AtomicLong pricesWritten = new AtomicLong();
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        Job(LocalDate from, LocalDate to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        void finish(Exception failure) {
+            error = failure != null ? String.valueOf(failure.getMessage()) : null;
+            finishedAt = LocalDateTime.now();
+        }
+
+        BackfillStatusDTO toStatus() {
+            LocalDateTime finished = finishedAt;
+            String state = finished == null ? "RUNNING" : error != null ? "FAILED" : "DONE";
+            return new BackfillStatusDTO(from, to, state, futuresProcessed.get(), pricesWritten.get(),
+                    startedAt, finished, error);
+        }
+    }
+}
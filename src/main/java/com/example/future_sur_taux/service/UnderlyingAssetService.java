@@ -2,20 +2,54 @@ package com.example.future_sur_taux.service;
 
 import com.example.future_sur_taux.domain.UnderlyingAsset;
 import com.example.future_sur_taux.domain.enumeration.UnderlyingType;
+import com.example.future_sur_taux.dto.CursorPageDTO;
+import com.example.future_sur_taux.dto.UnderlyingAssetListingDTO;
 import com.example.future_sur_taux.repository.UnderlyingAssetRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class UnderlyingAssetService {
 
+    private static final int MAX_LIMIT = 1000;
+
     private final UnderlyingAssetRepository underlyingAssetRepository;
 
     public List<UnderlyingAsset> getUnderlyingAssetsByType(UnderlyingType type) {
         return underlyingAssetRepository.findByUnderlyingType(type);
     }
-}
 
+    /**
+     * Liste plate paginée par curseur (id croissant). On lit limit + 1 lignes pour savoir s'il reste une page.
+     */
+    public CursorPageDTO<UnderlyingAssetListingDTO> getListing(UnderlyingType type, Long after, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        List<Object[]> rows = underlyingAssetRepository.findListingPage(type.name(), after != null ? after : 0L, size + 1);
+
+        List<UnderlyingAssetListingDTO> items = new ArrayList<>(Math.min(rows.size(), size));
+        for (int i = 0; i < rows.size() && i < size; i++) {
+            Object[] row = rows.get(i);
+            items.add(new UnderlyingAssetListingDTO(
+                    ((Number) row[0]).longValue(),
+                    (String) row[1],
+                    (String) row[2],
+                    (String) row[3],
+                    (String) row[4],
+                    toLocalDate(row[5])));
+        }
+        Long nextCursor = rows.size() > size ? items.get(items.size() - 1).getId() : null;
+        return new CursorPageDTO<>(items, nextCursor);
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate date) return date;
+        if (value instanceof Date date) return date.toLocalDate();
+        return null;
+    }
+}
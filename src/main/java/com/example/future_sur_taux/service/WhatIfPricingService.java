@@ -0,0 +1,218 @@
+package com.example.future_sur_taux.service;
+
+import com.example.future_sur_taux.domain.Bond;
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.domain.Underlying;
+import com.example.future_sur_taux.dto.FutureCreationDTO;
+import com.example.future_sur_taux.dto.WhatIfResultDTO;
+import com.example.future_sur_taux.pricing.PricingContextFactory;
+import com.example.future_sur_taux.pricing.PricingProperties;
+import com.example.future_sur_taux.repository.UnderlyingRepository;
+import com.example.future_sur_taux.tenant.TenantScoped;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Valorisation hypothétique par lot : des milliers de spécifications de futures (maturité, marge,
+ * multiplicateur, obligation…) valorisées sans rien persister.
+ *
+ * Les obligations sont chargées une fois, échéancier compris, puis réutilisées par tenant pendant
+ * pricing.what-if.reference-ttl-ms. Le prix théorique ne dépend que du couple (obligation,
+ * maturité) : il est calculé une fois par couple, en parallèle, puis valeur du contrat et marge
+ * sont dérivées pour chaque spécification. Les résultats sont rendus par couple, dans l'ordre
+ * d'achèvement.
+ */
+@Slf4j
+@Service
+public class WhatIfPricingService {
+
+    private final UnderlyingRepository underlyingRepository;
+    private final FutureCalculationService calculationService;
+    private final PricingContextFactory pricingContextFactory;
+    private final TransactionTemplate readOnlyTransaction;
+    private final PricingProperties.WhatIf settings;
+    private final ForkJoinPool pool;
+
+    // Obligations détachées, partagées en lecture seule (null : sous-jacent absent ou pas une obligation)
+    private final TenantScoped<Map<Long, Reference>> references = new TenantScoped<>(ConcurrentHashMap::new);
+
+    public WhatIfPricingService(UnderlyingRepository underlyingRepository,
+                                FutureCalculationService calculationService,
+                                PricingContextFactory pricingContextFactory,
+                                PlatformTransactionManager transactionManager,
+                                PricingProperties properties) {
+        this.underlyingRepository = underlyingRepository;
+        this.calculationService = calculationService;
+        this.pricingContextFactory = pricingContextFactory;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.settings = properties.getWhatIf();
+        this.pool = new ForkJoinPool(Math.max(1, settings.getParallelism()));
+    }
+
+    public int maxSpecs() {
+        return settings.getMaxSpecs();
+    }
+
+    /**
+     * Valide les spécifications et charge les obligations. À appeler dans le thread de la requête
+     * (tenant courant) ; {@link #price} ne touche plus à la base.
+     */
+    public Batch prepare(List<FutureCreationDTO> specs, LocalDate valuationDate) {
+        Set<Long> underlyingIds = new LinkedHashSet<>();
+        for (FutureCreationDTO spec : specs) {
+            if (spec != null && spec.getUnderlyingId() != null) underlyingIds.add(spec.getUnderlyingId());
+        }
+        Map<Long, Bond> bonds = bonds(underlyingIds);
+
+        List<WhatIfResultDTO> rejected = new ArrayList<>();
+        Map<PriceKey, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < specs.size(); i++) {
+            FutureCreationDTO spec = specs.get(i);
+            if (spec == null) {
+                rejected.add(WhatIfResultDTO.failed(i, new FutureCreationDTO(), "Empty specification"));
+            } else if (spec.getUnderlyingId() == null) {
+                rejected.add(WhatIfResultDTO.failed(i, spec, "Underlying ID is required"));
+            } else if (!bonds.containsKey(spec.getUnderlyingId())) {
+                rejected.add(WhatIfResultDTO.failed(i, spec, "Bond underlying not found with ID: " + spec.getUnderlyingId()));
+            } else {
+                groups.computeIfAbsent(new PriceKey(spec.getUnderlyingId(), spec.getMaturityDate()), k -> new ArrayList<>()).add(i);
+            }
+        }
+        return new Batch(specs, valuationDate, bonds, groups, rejected);
+    }
+
+    /**
+     * Valorise le lot ; sink reçoit les résultats d'un couple (obligation, maturité) à la fois.
+     * Si sink échoue (client déconnecté), les calculs restants sont abandonnés.
+     */
+    public void price(Batch batch, Consumer<List<WhatIfResultDTO>> sink) {
+        if (!batch.rejected().isEmpty()) sink.accept(batch.rejected());
+
+        CompletionService<List<WhatIfResultDTO>> completion = new ExecutorCompletionService<>(pool);
+        List<java.util.concurrent.Future<List<WhatIfResultDTO>>> tasks = new ArrayList<>(batch.groups().size());
+        for (Map.Entry<PriceKey, List<Integer>> group : batch.groups().entrySet()) {
+            tasks.add(completion.submit(() -> priceGroup(batch, group.getKey(), group.getValue())));
+        }
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                sink.accept(completion.take().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompu pendant la valorisation hypothétique", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec de la valorisation hypothétique", e.getCause());
+        } finally {
+            tasks.forEach(task -> task.cancel(true));
+        }
+    }
+
+    private List<WhatIfResultDTO> priceGroup(Batch batch, PriceKey key, List<Integer> indexes) {
+        Bond bond = batch.bonds().get(key.underlyingId());
+        BigDecimal price;
+        try {
+            // Future transitoire, jamais attaché à une session
+            Future future = new Future();
+            future.setMaturityDate(key.maturityDate());
+            BigDecimal cleanPrice = bond.getUnderlyingPrice() != null ? bond.getUnderlyingPrice() : BigDecimal.ZERO;
+            // Taux variables : Monte Carlo réduit (pricing.what-if.monte-carlo-paths), réponse interactive
+            price = calculationService.theoreticalPrice(future, bond, cleanPrice,
+                    pricingContextFactory.contextFor(batch.valuationDate(), future, bond), settings.getMonteCarloPaths());
+        } catch (RuntimeException e) {
+            log.debug("Valorisation hypothétique impossible pour le sous-jacent {} au {}", key.underlyingId(), key.maturityDate(), e);
+            return indexes.stream()
+                    .map(i -> WhatIfResultDTO.failed(i, batch.specs().get(i), "Pricing failed: " + e.getMessage()))
+                    .toList();
+        }
+
+        List<WhatIfResultDTO> results = new ArrayList<>(indexes.size());
+        for (int i : indexes) {
+            FutureCreationDTO spec = batch.specs().get(i);
+            BigDecimal contractValue = calculationService.contractValue(price, spec.getContractMultiplier());
+            results.add(new WhatIfResultDTO(i, spec.getSymbol(), spec.getUnderlyingId(), spec.getMaturityDate(),
+                    price, contractValue, calculationService.initialMargin(contractValue, spec.getPercentageMargin()), null));
+        }
+        return results;
+    }
+
+    // ---------------- Données de référence ----------------
+
+    private Map<Long, Bond> bonds(Set<Long> underlyingIds) {
+        Map<Long, Reference> cache = references.get();
+        long now = System.currentTimeMillis();
+        Map<Long, Bond> bonds = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : underlyingIds) {
+            Reference reference = cache.get(id);
+            if (reference == null || now - reference.loadedAt() >= settings.getReferenceTtlMs()) {
+                missing.add(id);
+            } else if (reference.bond() != null) {
+                bonds.put(id, reference.bond());
+            }
+        }
+        if (missing.isEmpty()) return bonds;
+
+        Map<Long, Bond> loaded = readOnlyTransaction.execute(status -> load(missing));
+        if (cache.size() + missing.size() > settings.getMaxCachedReferences()) cache.clear();
+        for (Long id : missing) {
+            Bond bond = loaded != null ? loaded.get(id) : null;
+            cache.put(id, new Reference(bond, now));
+            if (bond != null) bonds.put(id, bond);
+        }
+        return bonds;
+    }
+
+    private Map<Long, Bond> load(List<Long> underlyingIds) {
+        Map<Long, Bond> bonds = new HashMap<>();
+        for (Underlying underlying : underlyingRepository.findAllById(underlyingIds)) {
+            Bond bond = FutureRepricingService.bondOf(underlying);
+            if (bond == null) continue;
+            // Échéancier lu dans la session : l'obligation est ensuite utilisée détachée
+            Hibernate.initialize(bond.getFutureCoupons());
+            bonds.put(underlying.getId(), bond);
+        }
+        return bonds;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Spécifications validées, regroupées par couple (obligation, maturité), et obligations chargées.
+     */
+    public record Batch(List<FutureCreationDTO> specs,
+                        LocalDate valuationDate,
+                        Map<Long, Bond> bonds,
+                        Map<PriceKey, List<Integer>> groups,
+                        List<WhatIfResultDTO> rejected) {
+    }
+
+    record PriceKey(Long underlyingId, LocalDate maturityDate) {
+    }
+
+    private record Reference(Bond bond, long loadedAt) {
+    }
+}
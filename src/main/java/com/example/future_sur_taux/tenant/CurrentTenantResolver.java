@@ -0,0 +1,24 @@
+package com.example.future_sur_taux.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tenant des sessions Hibernate : un tenant est un schéma Postgres, choisi à l'ouverture de la
+ * session d'après {@link TenantContext}.
+ */
+@Component
+public class CurrentTenantResolver implements CurrentTenantIdentifierResolver<String> {
+
+    public static final String DEFAULT_SCHEMA = "public";
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.current();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return true;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.future_sur_taux.tenant;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.jdbc.connections.spi.AbstractDataSourceBasedMultiTenantConnectionProviderImpl;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Connexions Hibernate prises dans le pool du tenant de la session : le schéma est fixé par le
+ * pool, aucune connexion n'est rebasculée d'un schéma à l'autre.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantConnectionProvider extends AbstractDataSourceBasedMultiTenantConnectionProviderImpl<String> {
+
+    private final transient TenantRegistry tenantRegistry;
+
+    @Override
+    protected DataSource selectAnyDataSource() {
+        return tenantRegistry.dataSource(CurrentTenantResolver.DEFAULT_SCHEMA);
+    }
+
+    @Override
+    protected DataSource selectDataSource(String tenantIdentifier) {
+        return tenantRegistry.dataSource(tenantIdentifier);
+    }
+}
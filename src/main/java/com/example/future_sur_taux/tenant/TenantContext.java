@@ -0,0 +1,47 @@
+package com.example.future_sur_taux.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * Tenant (desk) du thread courant. Posé par {@link TenantFilter} pour une requête HTTP, et par
+ * {@link TenantRegistry#forEachTenant} pour les traitements planifiés. Sans tenant posé, on
+ * travaille dans le schéma par défaut.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : CurrentTenantResolver.DEFAULT_SCHEMA;
+    }
+
+    public static void set(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void runAs(String tenant, Runnable task) {
+        callAs(tenant, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public static <T> T callAs(String tenant, Supplier<T> task) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) CURRENT.set(previous);
+            else CURRENT.remove();
+        }
+    }
+}
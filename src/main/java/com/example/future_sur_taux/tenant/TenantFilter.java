@@ -0,0 +1,51 @@
+package com.example.future_sur_taux.tenant;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Lit le tenant de la requête (en-tête tenants.header) et le pose dans {@link TenantContext}
+ * pour toute la durée du traitement. Tenant inconnu : 400.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class TenantFilter extends OncePerRequestFilter {
+
+    // Lu par les métriques HTTP, après la sortie du filtre
+    public static final String TENANT_ATTRIBUTE = TenantFilter.class.getName() + ".tenant";
+
+    private final TenantRegistry tenantRegistry;
+    private final TenantProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(properties.getHeader());
+        String tenant = header == null || header.isBlank()
+                ? CurrentTenantResolver.DEFAULT_SCHEMA
+                : header.trim().toLowerCase(Locale.ROOT);
+        if (!tenantRegistry.isKnown(tenant)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown tenant: " + tenant);
+            return;
+        }
+
+        request.setAttribute(TENANT_ATTRIBUTE, tenant);
+        TenantContext.set(tenant);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.future_sur_taux.tenant;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "tenants")
+public class TenantProperties {
+
+    // Schémas servis par cette instance (le schéma par défaut est toujours servi)
+    private List<String> ids = new ArrayList<>(List.of(CurrentTenantResolver.DEFAULT_SCHEMA));
+
+    // En-tête portant le tenant ; absent = schéma par défaut
+    private String header = "X-Tenant-Id";
+
+    // Pool de connexions propre à chaque tenant
+    private Pool pool = new Pool();
+
+    @Data
+    public static class Pool {
+        private int maximumPoolSize = 5;
+        private int minimumIdle = 1;
+        private long idleTimeoutMs = 300_000;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.future_sur_taux.tenant;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tenants servis par l'instance et leurs sources de données.
+ *
+ * Le schéma par défaut utilise la source de données de l'application ; chaque autre tenant a son
+ * propre pool Hikari borné (tenants.pool.*), connecté directement sur son schéma : un desk qui
+ * sature ses connexions n'en prend pas aux autres. Les pools publient leurs métriques Micrometer
+ * (hikaricp.*, pool = tenant-&lt;id&gt;).
+ */
+@Slf4j
+@Component
+public class TenantRegistry implements DisposableBean {
+
+    // Identifiant utilisé tel quel comme nom de schéma
+    private static final Pattern TENANT_ID = Pattern.compile("[a-z][a-z0-9_]{0,62}");
+
+    private final Map<String, DataSource> dataSources = new LinkedHashMap<>();
+    private final Map<String, JdbcTemplate> jdbcTemplates = new LinkedHashMap<>();
+    private final List<HikariDataSource> ownedPools = new ArrayList<>();
+
+    public TenantRegistry(DataSource dataSource,
+                          DataSourceProperties dataSourceProperties,
+                          TenantProperties properties,
+                          MeterRegistry meterRegistry) {
+        Set<String> ids = new LinkedHashSet<>();
+        ids.add(CurrentTenantResolver.DEFAULT_SCHEMA);
+        ids.addAll(properties.getIds());
+
+        for (String tenant : ids) {
+            if (!TENANT_ID.matcher(tenant).matches()) {
+                throw new IllegalStateException("Invalid tenant ID: " + tenant);
+            }
+            DataSource tenantDataSource = CurrentTenantResolver.DEFAULT_SCHEMA.equals(tenant)
+                    ? dataSource
+                    : pool(tenant, dataSourceProperties, properties.getPool(), meterRegistry);
+            dataSources.put(tenant, tenantDataSource);
+            jdbcTemplates.put(tenant, new JdbcTemplate(tenantDataSource));
+        }
+        log.info("Tenants servis : {}", dataSources.keySet());
+    }
+
+    private HikariDataSource pool(String tenant, DataSourceProperties dataSourceProperties,
+                                  TenantProperties.Pool settings, MeterRegistry meterRegistry) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("tenant-" + tenant);
+        // search_path positionné à la création de chaque connexion
+        pool.setSchema(tenant);
+        pool.setMaximumPoolSize(settings.getMaximumPoolSize());
+        pool.setMinimumIdle(Math.min(settings.getMinimumIdle(), settings.getMaximumPoolSize()));
+        pool.setIdleTimeout(settings.getIdleTimeoutMs());
+        pool.setMetricRegistry(meterRegistry);
+        ownedPools.add(pool);
+        return pool;
+    }
+
+    public Set<String> tenantIds() {
+        return Collections.unmodifiableSet(dataSources.keySet());
+    }
+
+    public boolean isKnown(String tenant) {
+        return tenant != null && dataSources.containsKey(tenant);
+    }
+
+    public DataSource dataSource(String tenant) {
+        DataSource dataSource = dataSources.get(tenant);
+        if (dataSource == null) throw new RuntimeException("Tenant not found with ID: " + tenant);
+        return dataSource;
+    }
+
+    public JdbcTemplate jdbcTemplate(String tenant) {
+        JdbcTemplate jdbcTemplate = jdbcTemplates.get(tenant);
+        if (jdbcTemplate == null) throw new RuntimeException("Tenant not found with ID: " + tenant);
+        return jdbcTemplate;
+    }
+
+    /**
+     * Exécute la tâche dans le contexte de chaque tenant, l'un après l'autre. L'échec d'un tenant
+     * est journalisé et n'empêche pas les suivants.
+     */
+    public void forEachTenant(Runnable task) {
+        for (String tenant : dataSources.keySet()) {
+            try {
+                TenantContext.runAs(tenant, task);
+            } catch (RuntimeException e) {
+                log.error("Échec du traitement pour le tenant {}", tenant, e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        ownedPools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.future_sur_taux.tenant;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * État en mémoire propre à chaque tenant (index, instantanés, moteurs), créé au premier accès.
+ * Deux tenants ne partagent jamais une instance : les identifiants d'un schéma à l'autre se
+ * recouvrent.
+ */
+public class TenantScoped<T> {
+
+    private final Map<String, T> values = new ConcurrentHashMap<>();
+    private final Supplier<T> factory;
+
+    public TenantScoped(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    /** Valeur du tenant courant ({@link TenantContext}). */
+    public T get() {
+        return get(TenantContext.current());
+    }
+
+    public T get(String tenant) {
+        return values.computeIfAbsent(tenant, t -> factory.get());
+    }
+}
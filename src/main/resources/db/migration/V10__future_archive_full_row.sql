@@ -0,0 +1,36 @@
+-- future_archive reprend toutes les colonnes de future : un contrat archivé reste restaurable
+-- et valorisable (backfill de l'historique). Les lignes déjà archivées gardent NULL.
+ALTER TABLE future_archive
+    ADD COLUMN IF NOT EXISTS description                VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS full_name                  VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS first_trading_date         DATE,
+    ADD COLUMN IF NOT EXISTS tick_size                  DOUBLE PRECISION,
+    ADD COLUMN IF NOT EXISTS tick_value                 DOUBLE PRECISION,
+    ADD COLUMN IF NOT EXISTS lot_size                   INTEGER,
+    ADD COLUMN IF NOT EXISTS contract_multiplier        INTEGER,
+    ADD COLUMN IF NOT EXISTS settlement_method          VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS collateral_method          VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS deposit_type               VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS percentage_margin          NUMERIC(5, 2),
+    ADD COLUMN IF NOT EXISTS instrument_status          BOOLEAN,
+    ADD COLUMN IF NOT EXISTS flag_for_delete            BOOLEAN,
+    ADD COLUMN IF NOT EXISTS issued_qty                 NUMERIC(38, 2),
+    ADD COLUMN IF NOT EXISTS load_id                    VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS active_load_id             VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS secondary_load_id          VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS internal_load_id           VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS md5multicast_channel_id    VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS secmd5multicast_channel_id VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS market_data_channel_id     VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS reference_price_table      VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS reference_price            NUMERIC(38, 2),
+    ADD COLUMN IF NOT EXISTS blue_month                 BOOLEAN,
+    ADD COLUMN IF NOT EXISTS settlement_date            DATE,
+    ADD COLUMN IF NOT EXISTS order_deletion_date        DATE,
+    ADD COLUMN IF NOT EXISTS mob_type                   VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS post_trade_parameter       VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS trading_parameter          VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS calendar_id                VARCHAR(255);
+
+-- Lecture par le backfill : contrats négociables sur une plage de dates
+CREATE INDEX IF NOT EXISTS idx_future_archive_last_trading ON future_archive (last_trading_date, future_id);
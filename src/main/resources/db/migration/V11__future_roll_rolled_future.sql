@@ -0,0 +1,3 @@
+-- Contrat issu du roll : les instances qui perdent la réservation le publient dans leur
+-- instantané et leur index sans recalculer l'échéance suivante.
+ALTER TABLE future_roll ADD COLUMN IF NOT EXISTS rolled_future_id BIGINT;
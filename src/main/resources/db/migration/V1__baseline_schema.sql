@@ -0,0 +1,111 @@
+-- Schéma de référence, identique à ce que générait ddl-auto=update.
+-- IF NOT EXISTS : les bases existantes sont reprises telles quelles (baseline-version=0).
+
+CREATE TABLE IF NOT EXISTS asset (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description VARCHAR(255),
+    isin        VARCHAR(255),
+    name        VARCHAR(255),
+    symbol      VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS bond (
+    id               BIGINT NOT NULL PRIMARY KEY REFERENCES asset (id),
+    coupon_amount    NUMERIC(38, 2),
+    index_rate       NUMERIC(38, 2),
+    maturity_date    DATE,
+    nominal          NUMERIC(38, 2),
+    periodicity      SMALLINT CHECK (periodicity BETWEEN 0 AND 6),
+    rate_type        VARCHAR(255),
+    underlying_price NUMERIC(38, 2)
+);
+
+CREATE TABLE IF NOT EXISTS cash_flow (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    amount       NUMERIC(38, 2),
+    payment_date DATE,
+    bond_id      BIGINT REFERENCES bond (id)
+);
+
+CREATE TABLE IF NOT EXISTS underlying (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    identifier      VARCHAR(255),
+    underlying_type VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS underlying_asset (
+    id       BIGINT NOT NULL PRIMARY KEY REFERENCES underlying (id),
+    asset_id BIGINT UNIQUE REFERENCES asset (id)
+);
+
+CREATE TABLE IF NOT EXISTS future (
+    id                          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    symbol                      VARCHAR(255),
+    description                 VARCHAR(255),
+    isin                        VARCHAR(255),
+    expiration_code             VARCHAR(255),
+    parent_ticker               VARCHAR(255),
+    full_name                   VARCHAR(255),
+    segment                     VARCHAR(255),
+    first_trading_date          DATE,
+    last_trading_date           DATE,
+    maturity_date               DATE,
+    expiry_date                 DATE,
+    tick_size                   DOUBLE PRECISION,
+    tick_value                  DOUBLE PRECISION,
+    trading_currency            VARCHAR(255),
+    lot_size                    INTEGER,
+    contract_multiplier         INTEGER,
+    underlying_id               BIGINT REFERENCES underlying (id),
+    settlement_method           VARCHAR(255),
+    collateral_method           VARCHAR(255),
+    deposit_type                VARCHAR(255),
+    percentage_margin           NUMERIC(5, 2),
+    theoretical_price           NUMERIC(15, 6),
+    contract_value              NUMERIC(20, 6),
+    initial_margin_amount       NUMERIC(20, 6),
+    instrument_status           BOOLEAN,
+    flag_for_delete             BOOLEAN,
+    issued_qty                  NUMERIC(38, 2),
+    load_id                     VARCHAR(255),
+    active_load_id              VARCHAR(255),
+    secondary_load_id           VARCHAR(255),
+    internal_load_id            VARCHAR(255),
+    md5multicast_channel_id     VARCHAR(255),
+    secmd5multicast_channel_id  VARCHAR(255),
+    market_data_channel_id      VARCHAR(255),
+    reference_price_table       VARCHAR(255),
+    reference_price             NUMERIC(38, 2),
+    blue_month                  BOOLEAN,
+    settlement_date             DATE,
+    deletion_date               DATE,
+    order_deletion_date         DATE,
+    mob_type                    VARCHAR(255),
+    post_trade_parameter        VARCHAR(255),
+    trading_parameter           VARCHAR(255),
+    calendar_id                 VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS future_archive (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    future_id             BIGINT,
+    underlying_id         BIGINT,
+    symbol                VARCHAR(255),
+    isin                  VARCHAR(255),
+    expiration_code       VARCHAR(255),
+    parent_ticker         VARCHAR(255),
+    segment               VARCHAR(255),
+    trading_currency      VARCHAR(255),
+    maturity_date         DATE,
+    last_trading_date     DATE,
+    expiry_date           DATE,
+    deletion_date         DATE,
+    theoretical_price     NUMERIC(15, 6),
+    contract_value        NUMERIC(20, 6),
+    initial_margin_amount NUMERIC(20, 6),
+    archive_reason        VARCHAR(255),
+    archived_at           TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_future_archive_maturity ON future_archive (maturity_date);
+CREATE INDEX IF NOT EXISTS idx_future_archive_future_id ON future_archive (future_id);
@@ -0,0 +1,12 @@
+-- Index de la recherche multicritère (FutureSpecifications).
+
+CREATE INDEX IF NOT EXISTS idx_future_isin ON future (isin);
+-- Préfixe insensible à la casse : upper(symbol) LIKE 'ABC%'
+CREATE INDEX IF NOT EXISTS idx_future_symbol_prefix ON future (upper(symbol) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_future_parent_ticker ON future (parent_ticker);
+CREATE INDEX IF NOT EXISTS idx_future_segment_maturity ON future (segment, maturity_date);
+CREATE INDEX IF NOT EXISTS idx_future_currency_maturity ON future (trading_currency, maturity_date);
+CREATE INDEX IF NOT EXISTS idx_future_maturity ON future (maturity_date, id);
+CREATE INDEX IF NOT EXISTS idx_future_underlying ON future (underlying_id);
+CREATE INDEX IF NOT EXISTS idx_future_last_trading ON future (last_trading_date);
+CREATE INDEX IF NOT EXISTS idx_cash_flow_bond ON cash_flow (bond_id);
@@ -0,0 +1,2 @@
+-- Base de calcul des intérêts par obligation (DayBase), NULL = pricing.default-day-base.
+ALTER TABLE bond ADD COLUMN IF NOT EXISTS day_base VARCHAR(255);
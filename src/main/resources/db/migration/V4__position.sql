@@ -0,0 +1,11 @@
+-- Positions par compte pour le moteur de marge de portefeuille.
+CREATE TABLE IF NOT EXISTS position (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_id VARCHAR(255) NOT NULL,
+    future_id  BIGINT       NOT NULL,
+    quantity   BIGINT       NOT NULL,
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uk_position_account_future UNIQUE (account_id, future_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_position_future ON position (future_id);
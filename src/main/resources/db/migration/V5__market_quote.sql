@@ -0,0 +1,8 @@
+-- Dernières cotations partagées entre les instances (mode cluster, quotes.cluster.enabled).
+CREATE TABLE IF NOT EXISTS market_quote (
+    symbol     VARCHAR(255) PRIMARY KEY,
+    price      NUMERIC(20, 6),
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_market_quote_updated_at ON market_quote (updated_at);
@@ -0,0 +1,2 @@
+-- Parcours par curseur de la liste des sous-jacents d'un type : where underlying_type = ? and id > ? order by id
+CREATE INDEX IF NOT EXISTS idx_underlying_type_id ON underlying (underlying_type, id);
@@ -0,0 +1,25 @@
+-- Prix clean historiques des obligations, lus « à date » par le backfill des prix théoriques.
+-- Alimentée chaque soir depuis bond.underlying_price ; un historique externe peut y être importé.
+CREATE TABLE IF NOT EXISTS bond_price_history (
+    bond_id     BIGINT         NOT NULL REFERENCES bond (id),
+    price_date  DATE           NOT NULL,
+    clean_price NUMERIC(38, 6) NOT NULL,
+    PRIMARY KEY (bond_id, price_date)
+);
+
+-- Historique des prix théoriques en colonnes : une ligne par future et par mois,
+-- prices[i] = prix du jour period_start + (i - 1), NULL si non calculé.
+-- Pas de clé étrangère : l'historique des contrats archivés est conservé.
+CREATE TABLE IF NOT EXISTS future_price_history (
+    future_id    BIGINT             NOT NULL,
+    period_start DATE               NOT NULL,
+    prices       DOUBLE PRECISION[] NOT NULL,
+    PRIMARY KEY (future_id, period_start)
+);
+
+-- Point de départ de l'historique : prix courant des obligations
+INSERT INTO bond_price_history (bond_id, price_date, clean_price)
+SELECT id, CURRENT_DATE, underlying_price
+FROM bond
+WHERE underlying_price IS NOT NULL
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,4 @@
+-- index_rate est un taux décimal (0.035 pour 3,5 %) : l'échelle 2 tronquait 0.035 en 0.04.
+-- Les valeurs saisies en pourcentage (> 1) sont ramenées à la convention décimale.
+ALTER TABLE bond ALTER COLUMN index_rate TYPE NUMERIC(38, 8);
+UPDATE bond SET index_rate = index_rate / 100 WHERE index_rate > 1;
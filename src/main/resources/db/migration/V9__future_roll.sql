@@ -0,0 +1,6 @@
+-- Un roll par contrat arrivant à échéance : la clé primaire rend le roll idempotent entre
+-- instances (mode cluster) et entre redémarrages. Pas de FK : le contrat échu est archivé ensuite.
+CREATE TABLE IF NOT EXISTS future_roll (
+    expiring_future_id BIGINT PRIMARY KEY,
+    rolled_on          DATE NOT NULL
+);
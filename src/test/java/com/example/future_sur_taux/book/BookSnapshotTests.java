@@ -0,0 +1,45 @@
+package com.example.future_sur_taux.book;
+
+import com.example.future_sur_taux.domain.Future;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BookSnapshotTests {
+
+    private static LiveFuture row(long id, String price) {
+        return LiveFuture.of(Future.builder()
+                .id(id)
+                .symbol("F" + id)
+                .theoreticalPrice(new BigDecimal(price))
+                .build());
+    }
+
+    @Test
+    void upsertsReplaceAndInsertInIdOrderWithoutTouchingPreviousVersion() {
+        BookSnapshot v1 = BookSnapshot.of(1, List.of(row(3, "103"), row(1, "101"), row(5, "105")));
+
+        BookSnapshot v2 = v1.withUpserts(List.of(row(4, "104"), row(1, "111"), row(1, "121")));
+
+        assertEquals(2, v2.getVersion());
+        assertEquals(List.of(1L, 3L, 4L, 5L), v2.futures().stream().map(LiveFuture::id).toList());
+        assertEquals(new BigDecimal("121"), v2.get(1).theoreticalPrice());
+        // L'ancienne version reste intacte pour les lecteurs qui la tiennent
+        assertEquals(new BigDecimal("101"), v1.get(1).theoreticalPrice());
+        assertNull(v1.get(4));
+    }
+
+    @Test
+    void removalsDropOnlyGivenIds() {
+        BookSnapshot v1 = BookSnapshot.of(1, List.of(row(1, "1"), row(2, "2"), row(3, "3")));
+
+        BookSnapshot v2 = v1.without(List.of(2L, 9L));
+
+        assertEquals(List.of(1L, 3L), v2.futures().stream().map(LiveFuture::id).toList());
+        assertEquals(3, v1.size());
+    }
+}
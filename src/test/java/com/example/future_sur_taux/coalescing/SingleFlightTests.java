@@ -0,0 +1,96 @@
+package com.example.future_sur_taux.coalescing;
+
+import com.example.future_sur_taux.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class SingleFlightTests {
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", Duration.ZERO, registry);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> flight.get("k", () -> {
+                executions.incrementAndGet();
+                await(release);
+                return 42;
+            })));
+        }
+        // Laisse les appelants s'accrocher au calcul en cours (borné : une régression ne bloque pas le build)
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.counter("singleflight.calls", "name", "test", "tenant", "public", "outcome", "coalesced").count() < 7) {
+            if (System.nanoTime() > deadline) {
+                release.countDown();
+                pool.shutdownNow();
+                fail("Appelants non regroupés dans le délai");
+            }
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        for (Future<Integer> result : results) assertEquals(42, result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        pool.shutdown();
+    }
+
+    @Test
+    void resultIsReusedWithinWindowAndFailuresAreNot() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", Duration.ofMinutes(1), new SimpleMeterRegistry());
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> flight.get("k", () -> {
+            executions.incrementAndGet();
+            throw new IllegalStateException("upstream");
+        }));
+        assertEquals(7, flight.get("k", () -> {
+            executions.incrementAndGet();
+            return 7;
+        }));
+        assertEquals(7, flight.get("k", () -> {
+            executions.incrementAndGet();
+            return 8;
+        }));
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void tenantsDoNotShareResults() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SingleFlight<String, String> flight = new SingleFlight<>("test", Duration.ofMinutes(1), registry);
+
+        assertEquals("desk_a", TenantContext.callAs("desk_a", () -> flight.get("k", TenantContext::current)));
+        assertEquals("desk_b", TenantContext.callAs("desk_b", () -> flight.get("k", TenantContext::current)));
+        assertEquals("desk_a", TenantContext.callAs("desk_a", () -> flight.get("k", () -> "stale")));
+
+        assertEquals(1, registry.counter("singleflight.calls", "name", "test", "tenant", "desk_b", "outcome", "executed").count());
+        assertEquals(1, registry.counter("singleflight.calls", "name", "test", "tenant", "desk_a", "outcome", "reused").count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
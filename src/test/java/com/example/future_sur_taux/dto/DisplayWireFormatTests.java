@@ -0,0 +1,82 @@
+package com.example.future_sur_taux.dto;
+
+import com.example.future_sur_taux.domain.enumeration.DepositType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compare la taille de /api/futures/display sérialisé en JSON et en CBOR, avec et sans gzip.
+ */
+class DisplayWireFormatTests {
+
+    private static final int BOOK_SIZE = 2_000;
+
+    @Test
+    void cborIsSmallerThanJson() throws IOException {
+        List<FutureDisplayDTO> book = book(BOOK_SIZE);
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.cbor()
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        byte[] jsonBytes = json.writeValueAsBytes(book);
+        byte[] cborBytes = cbor.writeValueAsBytes(book);
+
+        assertTrue(cborBytes.length < jsonBytes.length);
+        assertTrue(gzip(jsonBytes).length < jsonBytes.length);
+        assertTrue(gzip(cborBytes).length < cborBytes.length);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<FutureDisplayDTO> book(int size) {
+        List<FutureDisplayDTO> book = new ArrayList<>(size);
+        LocalDate base = LocalDate.of(2026, 3, 20);
+        for (int i = 0; i < size; i++) {
+            FutureDisplayDTO dto = new FutureDisplayDTO();
+            dto.setId((long) i);
+            dto.setSymbol("FBT" + i);
+            dto.setDescription("Future sur obligation " + i);
+            dto.setIsin(String.format("TN%010d", i));
+            dto.setParentTicker("FBT");
+            dto.setFirstTradingDate(base.minusMonths(3));
+            dto.setLastTradingDate(base.plusDays(i % 365));
+            dto.setMaturityDate(base.plusDays(i % 365 + 2));
+            dto.setTickSize(0.01);
+            dto.setTickValue(10.0);
+            dto.setTradingCurrency("TND");
+            dto.setLotSize(1);
+            dto.setContractMultiplier(1000);
+            dto.setPercentageMargin(BigDecimal.valueOf(5.00));
+            dto.setTheoreticalPrice(new BigDecimal("101.2345"));
+            dto.setContractValue(new BigDecimal("101234.5000"));
+            dto.setInitialMarginAmount(new BigDecimal("5061.7250"));
+            dto.setInstrumentStatus(true);
+            dto.setDepositType(DepositType.RATE);
+            dto.setUnderlyingId((long) (i % 50));
+            dto.setUnderlyingIdentifier("BTA" + (i % 50));
+            dto.setUnderlyingType("BONDS");
+            dto.setEvaluation("INCONNUE");
+            book.add(dto);
+        }
+        return book;
+    }
+}
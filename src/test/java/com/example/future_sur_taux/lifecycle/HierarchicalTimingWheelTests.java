@@ -0,0 +1,45 @@
+package com.example.future_sur_taux.lifecycle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class HierarchicalTimingWheelTests {
+
+    @Test
+    void firesEveryItemExactlyOnItsTickAcrossLevels() {
+        long start = 20_000;
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(start);
+        SplittableRandom random = new SplittableRandom(1);
+        Map<Long, List<Long>> expected = new TreeMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            // De demain à ~30 ans : les quatre niveaux sont sollicités
+            long tick = start + 1 + random.nextLong(11_000);
+            wheel.add(tick, tick);
+            expected.computeIfAbsent(tick, t -> new ArrayList<>()).add(tick);
+        }
+
+        Map<Long, List<Long>> fired = new TreeMap<>();
+        while (wheel.getCurrentTick() < start + 11_001) {
+            wheel.advanceTo(wheel.getCurrentTick() + 1, due -> fired.put(wheel.getCurrentTick(), due));
+        }
+
+        assertEquals(expected, fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastTicksAreReturnedToCaller() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100);
+        assertFalse(wheel.add(100, "today"));
+        assertFalse(wheel.add(42, "past"));
+        assertEquals(0, wheel.size());
+    }
+}
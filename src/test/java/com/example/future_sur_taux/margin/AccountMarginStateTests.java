@@ -0,0 +1,53 @@
+package com.example.future_sur_taux.margin;
+
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.domain.Underlying;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AccountMarginStateTests {
+
+    private static ContractRiskArray contract(long futureId, long underlyingId) {
+        Underlying underlying = new Underlying();
+        underlying.setId(underlyingId);
+        Future future = Future.builder()
+                .id(futureId)
+                .underlying(underlying)
+                .contractValue(BigDecimal.valueOf(100_000))
+                .percentageMargin(BigDecimal.valueOf(5))
+                .build();
+        return ContractRiskArray.of(future);
+    }
+
+    @Test
+    void singleLongPositionIsDrivenByExtremeScenario() {
+        AccountMarginState state = new AccountMarginState("A");
+        state.apply(contract(1, 10), 2, 0.25);
+
+        // 2 lots × (100 000 × 5 %) × 3 × 35 %
+        assertEquals(0, BigDecimal.valueOf(10_500).compareTo(state.toMargin(0.30).getInitialMargin()));
+    }
+
+    @Test
+    void calendarSpreadNetsScanRiskAndAddsSpreadCharge() {
+        AccountMarginState state = new AccountMarginState("A");
+        state.apply(contract(1, 10), 1, 0.25);
+        state.apply(contract(2, 10), -1, 0.25);
+
+        // Scan nul, charge = 0.25 × 1 spread × 5 000
+        assertEquals(0, BigDecimal.valueOf(1_250).compareTo(state.toMargin(0.30).getInitialMargin()));
+    }
+
+    @Test
+    void closingPositionReturnsToZero() {
+        AccountMarginState state = new AccountMarginState("A");
+        state.apply(contract(1, 10), 3, 0.25);
+        state.apply(contract(1, 10), 0, 0.25);
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(state.toMargin(0.30).getInitialMargin()));
+        assertEquals(0, state.toMargin(0.30).getPositions());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.future_sur_taux.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BondPriceHistoryTests {
+
+    private static final LocalDate D1 = LocalDate.of(2024, 3, 1);
+    private static final LocalDate D2 = LocalDate.of(2024, 3, 15);
+
+    private static BondPriceHistory history() {
+        // Ajouts dans le désordre : le builder trie chaque série
+        return BondPriceHistory.builder()
+                .add(1L, D2, BigDecimal.valueOf(99))
+                .add(1L, D1, BigDecimal.valueOf(98))
+                .add(2L, D2, BigDecimal.valueOf(101))
+                .build();
+    }
+
+    @Test
+    void pricesAreReadAsOfTheLastQuotedDay() {
+        BondPriceHistory history = history();
+
+        assertNull(history.asOf(1L, D1.minusDays(1)));
+        assertEquals(BigDecimal.valueOf(98), history.asOf(1L, D1));
+        assertEquals(BigDecimal.valueOf(98), history.asOf(1L, D2.minusDays(1)));
+        assertEquals(BigDecimal.valueOf(99), history.asOf(1L, D2));
+        assertEquals(BigDecimal.valueOf(99), history.asOf(1L, D2.plusYears(1)));
+    }
+
+    @Test
+    void unknownBondHasNoPrice() {
+        BondPriceHistory history = history();
+
+        assertNull(history.asOf(3L, D2));
+        assertNull(history.asOf(2L, D1));
+        assertEquals(2, history.bondCount());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.future_sur_taux.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class MonteCarloMemoTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 2);
+    private static final LocalDate MATURITY = LocalDate.of(2026, 6, 20);
+
+    private static MonteCarloResult result() {
+        return new MonteCarloResult(100, 0.01, 0.02, 1e-4, 1, 99, 10_000, 0.9, 5, true, 3);
+    }
+
+    @Test
+    void futuresOfTheSameBondAndMaturityShareOneSimulation() {
+        PricingContext context = new PricingContext(TODAY, null, null, 10, 400);
+        MonteCarloMemo memo = new MonteCarloMemo();
+        AtomicInteger simulations = new AtomicInteger();
+
+        MonteCarloResult first = memo.get(1L, MATURITY, context, 10_000, () -> {
+            simulations.incrementAndGet();
+            return result();
+        });
+        MonteCarloResult second = memo.get(1L, MATURITY, context, 10_000, () -> {
+            simulations.incrementAndGet();
+            return result();
+        });
+
+        assertSame(first, second);
+        assertEquals(1, simulations.get());
+    }
+
+    @Test
+    void otherBondMaturityOrContextIsSimulatedAgain() {
+        PricingContext context = new PricingContext(TODAY, null, null, 10, 400);
+        PricingContext nextDay = new PricingContext(TODAY.plusDays(1), null, null, 10, 400);
+        MonteCarloMemo memo = new MonteCarloMemo();
+        AtomicInteger simulations = new AtomicInteger();
+
+        for (Object[] key : new Object[][]{{1L, MATURITY, context}, {2L, MATURITY, context},
+                {1L, MATURITY.plusMonths(3), context}, {1L, MATURITY, nextDay}}) {
+            memo.get((Long) key[0], (LocalDate) key[1], (PricingContext) key[2], 10_000, () -> {
+                simulations.incrementAndGet();
+                return result();
+            });
+        }
+
+        assertEquals(4, simulations.get());
+        assertEquals(4, memo.size());
+    }
+}
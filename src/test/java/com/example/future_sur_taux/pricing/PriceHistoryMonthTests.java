@@ -0,0 +1,73 @@
+package com.example.future_sur_taux.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PriceHistoryMonthTests {
+
+    private static final YearMonth FEBRUARY = YearMonth.of(2024, 2);
+
+    @Test
+    void rangeIsSplitByMonthAndClampedToItsBounds() {
+        LocalDate from = LocalDate.of(2024, 1, 20);
+        LocalDate to = LocalDate.of(2024, 3, 10);
+
+        assertEquals(List.of(YearMonth.of(2024, 1), FEBRUARY, YearMonth.of(2024, 3)),
+                PriceHistoryMonth.monthsBetween(from, to));
+
+        PriceHistoryMonth january = new PriceHistoryMonth(YearMonth.of(2024, 1), from, to, 1);
+        assertEquals(from, january.firstDay());
+        assertEquals(LocalDate.of(2024, 1, 31), january.lastDay());
+
+        PriceHistoryMonth february = new PriceHistoryMonth(FEBRUARY, from, to, 1);
+        assertEquals(LocalDate.of(2024, 2, 1), february.firstDay());
+        assertEquals(LocalDate.of(2024, 2, 29), february.lastDay());
+        assertEquals(29, february.mergedWith(0, null).length);
+
+        PriceHistoryMonth march = new PriceHistoryMonth(YearMonth.of(2024, 3), from, to, 1);
+        assertEquals(LocalDate.of(2024, 3, 1), march.periodStart());
+        assertEquals(to, march.lastDay());
+    }
+
+    @Test
+    void secondRunMergesIntoTheExistingMonthRow() {
+        // Premier passage : du 1er au 10 février
+        PriceHistoryMonth first = new PriceHistoryMonth(FEBRUARY, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 10), 1);
+        for (LocalDate day = first.firstDay(); !day.isAfter(first.lastDay()); day = day.plusDays(1)) {
+            first.set(0, day, 100 + day.getDayOfMonth());
+        }
+        Double[] stored = first.mergedWith(0, null);
+        assertEquals(10, first.count(0));
+        assertNull(stored[10]);
+
+        // Second passage : du 5 au 15, le 7 sans prix cette fois
+        PriceHistoryMonth second = new PriceHistoryMonth(FEBRUARY, LocalDate.of(2024, 2, 5), LocalDate.of(2024, 2, 15), 1);
+        for (LocalDate day = second.firstDay(); !day.isAfter(second.lastDay()); day = day.plusDays(1)) {
+            if (day.getDayOfMonth() != 7) second.set(0, day, 200 + day.getDayOfMonth());
+        }
+        Double[] merged = second.mergedWith(0, stored);
+
+        Double[] expected = new Double[29];
+        for (int d = 1; d <= 4; d++) expected[d - 1] = 100.0 + d;   // hors du second passage : conservés
+        for (int d = 5; d <= 15; d++) expected[d - 1] = 200.0 + d;  // recalculés
+        expected[6] = 107.0;                                        // pas de prix cette fois : conservé
+        assertArrayEquals(expected, merged);
+    }
+
+    @Test
+    void futuresOfTheChunkAreIndependentRows() {
+        PriceHistoryMonth month = new PriceHistoryMonth(FEBRUARY, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29), 2);
+        month.set(1, LocalDate.of(2024, 2, 3), 99.5);
+
+        assertEquals(0, month.count(0));
+        assertEquals(1, month.count(1));
+        assertEquals(Double.valueOf(99.5), month.mergedWith(1, null)[2]);
+    }
+}
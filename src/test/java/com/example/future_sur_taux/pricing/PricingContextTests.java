@@ -0,0 +1,78 @@
+package com.example.future_sur_taux.pricing;
+
+import com.example.future_sur_taux.domain.enumeration.DayBase;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PricingContextTests {
+
+    private static final double EPS = 1e-12;
+
+    // 1er mai 2024 : mercredi férié
+    private static final BusinessCalendar CALENDAR =
+            new BusinessCalendar("TEST", Set.of(LocalDate.of(2024, 5, 1)));
+
+    @Test
+    void realBaseSplitsYearEndAcrossBothYearLengths() {
+        PricingContext ctx = new PricingContext(LocalDate.of(2023, 12, 1), DayBase.REAL_BASE, null, 0, 400);
+
+        // 31 jours sur 2023 (365), 335 jours sur 2024 (bissextile)
+        assertEquals(31.0 / 365 + 335.0 / 366, ctx.yearFraction(LocalDate.of(2024, 12, 1)), EPS);
+        assertEquals(31.0 / 365, ctx.yearFraction(LocalDate.of(2024, 1, 1)), EPS);
+    }
+
+    @Test
+    void realBaseCountsLeapDayOverLeapYearLength() {
+        PricingContext ctx = new PricingContext(LocalDate.of(2024, 2, 28), DayBase.REAL_BASE, null, 30, 30);
+
+        assertEquals(2.0 / 366, ctx.yearFraction(LocalDate.of(2024, 3, 1)), EPS);
+        assertEquals(-28.0 / 366, ctx.yearFraction(LocalDate.of(2024, 1, 31)), EPS);
+        assertEquals(1.0 / 366, ctx.yearFraction(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 1)), EPS);
+    }
+
+    @Test
+    void dayBase252SkipsWeekendsAndHolidays() {
+        PricingContext ctx = new PricingContext(LocalDate.of(2024, 4, 29), DayBase.DAY_BASE_252, CALENDAR, 10, 30);
+
+        // ]lun 29/04 ; ven 03/05] : 30/04, 02/05, 03/05 (le 01/05 est férié)
+        assertEquals(3.0 / 252, ctx.yearFraction(LocalDate.of(2024, 5, 3)), EPS);
+        // Un week-end n'ajoute rien
+        assertEquals(ctx.yearFraction(LocalDate.of(2024, 5, 3)), ctx.yearFraction(LocalDate.of(2024, 5, 5)), EPS);
+    }
+
+    @Test
+    void businessDaysBetweenIsSignedAndExcludesStartDay() {
+        PricingContext ctx = new PricingContext(LocalDate.of(2024, 4, 29), DayBase.DAY_BASE_365, CALENDAR, 10, 30);
+
+        LocalDate friday = LocalDate.of(2024, 4, 26);
+        LocalDate monday = LocalDate.of(2024, 5, 6);
+        // 29/04, 30/04, 02/05, 03/05, 06/05
+        assertEquals(5, ctx.businessDaysBetween(friday, monday));
+        assertEquals(-5, ctx.businessDaysBetween(monday, friday));
+        assertEquals(0, ctx.businessDaysBetween(friday, friday));
+    }
+
+    @Test
+    void valuesOutsideWindowMatchTableAtWindowEdges() {
+        LocalDate valuation = LocalDate.of(2024, 12, 20);
+        for (DayBase base : DayBase.values()) {
+            PricingContext table = new PricingContext(valuation, base, CALENDAR, 10, 20);
+            // Fenêtre réduite à la date de valeur : tout le reste est calculé directement
+            PricingContext direct = new PricingContext(valuation, base, CALENDAR, 0, 0);
+
+            for (LocalDate d = valuation.minusDays(15); !d.isAfter(valuation.plusDays(25)); d = d.plusDays(1)) {
+                assertEquals(direct.yearFraction(d), table.yearFraction(d), EPS, base + " " + d);
+                assertEquals(direct.businessDaysBetween(valuation, d), table.businessDaysBetween(valuation, d),
+                        base + " " + d);
+            }
+            // Une borne dans la fenêtre, l'autre en dehors
+            LocalDate lastInWindow = valuation.plusDays(20);
+            assertEquals(direct.yearFraction(lastInWindow, lastInWindow.plusDays(1)),
+                    table.yearFraction(lastInWindow, lastInWindow.plusDays(1)), EPS, base.name());
+        }
+    }
+}
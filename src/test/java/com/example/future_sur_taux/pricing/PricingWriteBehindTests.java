@@ -0,0 +1,91 @@
+package com.example.future_sur_taux.pricing;
+
+import com.example.future_sur_taux.tenant.TenantProperties;
+import com.example.future_sur_taux.tenant.TenantRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PricingWriteBehindTests {
+
+    /**
+     * Registre sans base : les écritures du tenant "public" sont relevées (après failuresBeforeSuccess
+     * échecs), celles de "down" échouent toujours.
+     */
+    private static final class StubTenantRegistry extends TenantRegistry {
+        final Set<Long> writtenIds = ConcurrentHashMap.newKeySet();
+        final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+
+        StubTenantRegistry() {
+            super(new DriverManagerDataSource(), null, new TenantProperties(), null);
+        }
+
+        @Override
+        public JdbcTemplate jdbcTemplate(String tenant) {
+            return new JdbcTemplate() {
+                @Override
+                public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                    if ("down".equals(tenant) || failuresBeforeSuccess.getAndDecrement() > 0) {
+                        throw new DataAccessResourceFailureException("schéma indisponible");
+                    }
+                    for (Object[] row : batchArgs) writtenIds.add((Long) row[3]);
+                    return new int[batchArgs.size()];
+                }
+            };
+        }
+    }
+
+    private static PricingResult result(String tenant, long futureId) {
+        return new PricingResult(tenant, futureId, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE);
+    }
+
+    @Test
+    void failingTenantDoesNotBlockOthers() {
+        StubTenantRegistry registry = new StubTenantRegistry();
+        // File et lots minuscules : sans isolation, les résultats de "down" rempliraient le lot et la file
+        PricingWriteBehind writeBehind = new PricingWriteBehind(registry, 4, 2, 10, 2_000, 200);
+        writeBehind.start();
+
+        for (long id = 1; id <= 20; id++) writeBehind.submit(result("down", id));
+        for (long id = 1; id <= 50; id++) writeBehind.submit(result("public", id));
+
+        assertTrue(writeBehind.awaitFlushed("public", 5_000));
+        assertEquals(50, registry.writtenIds.size());
+        assertFalse(writeBehind.awaitFlushed("down", 50));
+
+        // Les résultats de "down" ne sont jamais écrits : l'arrêt le signale
+        IllegalStateException e = assertThrows(IllegalStateException.class, writeBehind::stop);
+        assertTrue(e.getMessage().contains("20 résultats"), e.getMessage());
+        Map<String, Long> stats = writeBehind.stats();
+        assertEquals(70L, stats.get("submitted"));
+        assertEquals(50L, stats.get("written"));
+    }
+
+    @Test
+    void shutdownRetriesFailedBatchUntilWritten() {
+        StubTenantRegistry registry = new StubTenantRegistry();
+        registry.failuresBeforeSuccess.set(3);
+        PricingWriteBehind writeBehind = new PricingWriteBehind(registry, 100, 500, 10, 2_000, 5_000);
+        writeBehind.start();
+
+        for (long id = 1; id <= 30; id++) writeBehind.submit(result("public", id));
+        // Arrêt immédiat : les premiers essais échouent, l'arrêt doit retenter avant de rendre la main
+        writeBehind.stop();
+
+        assertEquals(30, registry.writtenIds.size());
+        assertEquals(30L, writeBehind.stats().get("written"));
+    }
+}
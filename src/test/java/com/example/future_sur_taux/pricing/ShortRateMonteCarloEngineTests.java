@@ -0,0 +1,49 @@
+package com.example.future_sur_taux.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShortRateMonteCarloEngineTests {
+
+    private static ShortRateMonteCarloEngine engine() {
+        PricingProperties properties = new PricingProperties();
+        properties.getMonteCarlo().setParallelism(4);
+        properties.getMonteCarlo().setBatchSize(256);
+        return new ShortRateMonteCarloEngine(properties);
+    }
+
+    @Test
+    void zeroSpreadFloaterPricesAtPar() {
+        // Fixing = taux implicite du modèle : un FRN sans marge vaut le nominal à une date de fixing
+        VasicekModel model = new VasicekModel(0.03, 0.15, 0.04, 0.01);
+        double[] times = {0.5, 1.0, 1.5, 2.0, 2.5, 3.0};
+        double[] accruals = {0.5, 0.5, 0.5, 0.5, 0.5, 0.5};
+        double firstFixing = (1 / model.zeroCouponPrice(0.5) - 1) / 0.5;
+        FloatingRateSchedule schedule = new FloatingRateSchedule(times, accruals, 100, 0, firstFixing, 1.0);
+
+        MonteCarloResult result = engine().price(schedule, model, 7L, 20_000);
+
+        assertEquals(100, result.price(), 4 * result.standardError() + 1e-6);
+        assertTrue(result.varianceReduction() > 1);
+    }
+
+    @Test
+    void resultDoesNotDependOnThreadCount() {
+        VasicekModel model = new VasicekModel(0.03, 0.10, 0.03, 0.015);
+        FloatingRateSchedule schedule = new FloatingRateSchedule(
+                new double[]{1, 2, 3}, new double[]{1, 1, 1}, 100, 0.005, 0.03, 1.5);
+
+        PricingProperties single = new PricingProperties();
+        single.getMonteCarlo().setParallelism(1);
+        single.getMonteCarlo().setBatchSize(256);
+
+        MonteCarloResult parallel = engine().price(schedule, model, 11L, 10_000);
+        MonteCarloResult sequential = new ShortRateMonteCarloEngine(single).price(schedule, model, 11L, 10_000);
+
+        assertEquals(parallel.paths(), sequential.paths());
+        assertEquals(parallel.price(), sequential.price());
+        assertEquals(parallel.standardError(), sequential.standardError());
+    }
+}
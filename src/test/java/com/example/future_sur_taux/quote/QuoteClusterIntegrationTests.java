@@ -0,0 +1,205 @@
+package com.example.future_sur_taux.quote;
+
+import com.example.future_sur_taux.repository.FutureRepository;
+import com.example.future_sur_taux.service.FinnhubService;
+import com.example.future_sur_taux.tenant.TenantProperties;
+import com.example.future_sur_taux.tenant.TenantRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Mode cluster des cotations contre un vrai Postgres (verrou consultatif, LISTEN/NOTIFY).
+ *
+ * Ignoré sans base : renseigner QUOTES_IT_JDBC_URL (et QUOTES_IT_USER / QUOTES_IT_PASSWORD),
+ * en variable d'environnement ou propriété système. Chaque exécution travaille dans un schéma
+ * temporaire, supprimé à la fin.
+ */
+class QuoteClusterIntegrationTests {
+
+    private static final String SYMBOL = "FGBLZ5";
+
+    private static String baseUrl;
+    private static String user;
+    private static String password;
+    private static String schema;
+    private static DataSourceProperties properties;
+
+    @BeforeAll
+    static void createSchema() throws Exception {
+        baseUrl = setting("QUOTES_IT_JDBC_URL");
+        assumeTrue(baseUrl != null, "QUOTES_IT_JDBC_URL non renseignée : test d'intégration ignoré");
+        user = setting("QUOTES_IT_USER");
+        password = setting("QUOTES_IT_PASSWORD");
+        assumeTrue(canConnect(), "Postgres injoignable : test d'intégration ignoré");
+
+        schema = "quotes_it_" + Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+        try (Connection connection = DriverManager.getConnection(baseUrl, user, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("create schema " + schema);
+            statement.execute("set search_path to " + schema);
+            statement.execute(migration("/db/migration/V5__market_quote.sql"));
+        }
+
+        properties = new DataSourceProperties();
+        properties.setUrl(baseUrl + (baseUrl.contains("?") ? "&" : "?") + "currentSchema=" + schema);
+        properties.setUsername(user);
+        properties.setPassword(password);
+    }
+
+    @AfterAll
+    static void dropSchema() throws SQLException {
+        if (schema == null) return;
+        try (Connection connection = DriverManager.getConnection(baseUrl, user, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("drop schema " + schema + " cascade");
+        }
+    }
+
+    @Test
+    void onlyOneInstanceHoldsTheAdvisoryLock() {
+        long lockKey = ThreadLocalRandom.current().nextLong();
+        QuoteLeaderService first = leader(lockKey, Map.of());
+        QuoteLeaderService second = leader(lockKey, Map.of());
+        try {
+            first.refreshIfLeader();
+            second.refreshIfLeader();
+            assertTrue(first.isLeader());
+            assertFalse(second.isLeader());
+
+            // Session du leader fermée : Postgres libère le verrou, l'autre instance le prend
+            first.release();
+            second.refreshIfLeader();
+            assertTrue(second.isLeader());
+        } finally {
+            first.release();
+            second.release();
+        }
+    }
+
+    @Test
+    void upsertAndNotifyReachTheReplica() throws Exception {
+        QuoteLeaderService leader = leader(ThreadLocalRandom.current().nextLong(),
+                Map.of(SYMBOL, new BigDecimal("131.25")));
+        QuoteReplicaCache replica = new QuoteReplicaCache(jdbcTemplate(), properties, 200, 60_000);
+        replica.start();
+        try {
+            // Laisse le LISTEN s'établir avant la publication
+            awaitTrue(QuoteClusterIntegrationTests::listening, 5_000);
+            leader.refreshIfLeader();
+
+            awaitTrue(() -> new BigDecimal("131.25").compareTo(price(replica, SYMBOL)) == 0, 5_000);
+        } finally {
+            replica.stop();
+            leader.release();
+        }
+    }
+
+    @Test
+    void lateCommittedRowOlderThanLastSeenIsReadThroughOverlap() {
+        JdbcTemplate jdbc = jdbcTemplate();
+        jdbc.update("insert into market_quote (symbol, price, updated_at) values ('FOATH6', 120, now())");
+        QuoteReplicaCache replica = new QuoteReplicaCache(jdbc, properties, 200, 60_000);
+        replica.refreshChanged();
+
+        // Transaction commencée avant la dernière lecture mais validée après : updated_at < lastSeen
+        jdbc.update("insert into market_quote (symbol, price, updated_at) "
+                + "values ('FGBMH6', 117.5, now() - interval '5 seconds')");
+        replica.refreshChanged();
+
+        assertEquals(0, new BigDecimal("117.5").compareTo(price(replica, "FGBMH6")));
+        assertEquals(0, new BigDecimal("120").compareTo(price(replica, "FOATH6")));
+    }
+
+    private static QuoteLeaderService leader(long lockKey, Map<String, BigDecimal> quotes) {
+        FutureRepository futures = (FutureRepository) Proxy.newProxyInstance(FutureRepository.class.getClassLoader(),
+                new Class<?>[]{FutureRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findLiveSymbols")) return List.copyOf(quotes.keySet());
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        FinnhubService finnhub = new FinnhubService(null) {
+            @Override
+            public Map<String, BigDecimal> getMarketPrices(String[] symbols) {
+                Map<String, BigDecimal> prices = new HashMap<>();
+                for (String symbol : symbols) prices.put(symbol, quotes.get(symbol));
+                return prices;
+            }
+        };
+        DriverManagerDataSource dataSource = dataSource();
+        TenantRegistry tenants = new TenantRegistry(dataSource, properties, new TenantProperties(), null);
+        return new QuoteLeaderService(futures, finnhub, new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), properties, tenants, lockKey);
+    }
+
+    private static JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource());
+    }
+
+    private static DriverManagerDataSource dataSource() {
+        return new DriverManagerDataSource(properties.getUrl(), user, password);
+    }
+
+    private static BigDecimal price(QuoteReplicaCache replica, String symbol) {
+        BigDecimal price = replica.getPrices(new String[]{symbol}).get(symbol);
+        return price != null ? price : BigDecimal.valueOf(-1);
+    }
+
+    /** Vrai dès qu'une session écoute le canal des cotations. */
+    private static boolean listening() {
+        Integer sessions = jdbcTemplate().queryForObject(
+                "select count(*) from pg_stat_activity where query = 'LISTEN " + QuoteReplicaCache.CHANNEL + "'",
+                Integer.class);
+        return sessions != null && sessions > 0;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Délai dépassé");
+            Thread.sleep(50);
+        }
+    }
+
+    private static boolean canConnect() {
+        try (Connection ignored = DriverManager.getConnection(baseUrl, user, password)) {
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static String setting(String name) {
+        String value = System.getProperty(name);
+        return value != null ? value : System.getenv(name);
+    }
+
+    private static String migration(String resource) throws Exception {
+        try (InputStream in = QuoteClusterIntegrationTests.class.getResourceAsStream(resource)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.future_sur_taux.service;
+
+import com.example.future_sur_taux.domain.Future;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FutureLifecycleSchedulerTests {
+
+    private static Future contract(String symbol, String code, LocalDate maturity) {
+        return Future.builder()
+                .id(1L)
+                .symbol(symbol)
+                .parentTicker("FGBL")
+                .expirationCode(code)
+                .description("Euro-Bund " + code)
+                .fullName("Euro-Bund Future " + code)
+                .maturityDate(maturity)
+                .lastTradingDate(maturity.minusDays(2))
+                .instrumentStatus(true)
+                .flagForDelete(false)
+                .build();
+    }
+
+    @Test
+    void quarterlyContractRollsOverYearEnd() {
+        Future next = FutureLifecycleScheduler.nextContract(contract("FGBLZ25", "Z25", LocalDate.of(2025, 12, 8)));
+
+        assertEquals("H26", next.getExpirationCode());
+        assertEquals("FGBLH26", next.getSymbol());
+        assertEquals("Euro-Bund H26", next.getDescription());
+        assertEquals("Euro-Bund Future H26", next.getFullName());
+        assertEquals(LocalDate.of(2026, 3, 8), next.getMaturityDate());
+        assertEquals(LocalDate.of(2026, 3, 6), next.getLastTradingDate());
+        // Nouveau contrat : pas d'id, inactif jusqu'à sa firstTradingDate
+        assertNull(next.getId());
+        assertFalse(next.getInstrumentStatus());
+    }
+
+    @Test
+    void monthlyContractStepsOneMonth() {
+        Future next = FutureLifecycleScheduler.nextContract(contract("FGBLF26", "F26", LocalDate.of(2026, 1, 15)));
+
+        assertEquals("G26", next.getExpirationCode());
+        assertEquals("FGBLG26", next.getSymbol());
+        assertEquals(LocalDate.of(2026, 2, 15), next.getMaturityDate());
+    }
+
+    @Test
+    void symbolWithoutCodeSuffixIsRebuiltFromParentTicker() {
+        Future next = FutureLifecycleScheduler.nextContract(contract("BUND-DEC", "Z25", LocalDate.of(2025, 12, 8)));
+
+        assertEquals("FGBLH26", next.getSymbol());
+    }
+
+    @Test
+    void unknownExpirationCodeHasNoNextContract() {
+        assertNull(FutureLifecycleScheduler.nextContract(contract("FGBL2025", "2025", LocalDate.of(2025, 12, 8))));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.future_sur_taux.service;
+
+import com.example.future_sur_taux.domain.Future;
+import com.example.future_sur_taux.dto.InstrumentSuggestionDTO;
+import com.example.future_sur_taux.repository.FutureLookupRow;
+import com.example.future_sur_taux.repository.FutureRepository;
+import com.example.future_sur_taux.repository.UnderlyingRepository;
+import com.example.future_sur_taux.service.InstrumentLookupIndex.Entries;
+import com.example.future_sur_taux.service.InstrumentLookupIndex.Entry;
+import com.example.future_sur_taux.service.InstrumentLookupIndex.KeyType;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class InstrumentLookupIndexTests {
+
+    private static Entry entry(String key, KeyType type, long id) {
+        return new Entry(key, (byte) type.ordinal(), id);
+    }
+
+    private static List<Entry> entries(Entries e) {
+        List<Entry> all = new ArrayList<>();
+        for (int i = 0; i < e.size; i++) all.add(e.get(i));
+        return all;
+    }
+
+    private static Future future(long id, String symbol, String isin, String parentTicker) {
+        return Future.builder().id(id).symbol(symbol).isin(isin).parentTicker(parentTicker).build();
+    }
+
+    @Test
+    void mergeKeepsOrderByKeyTypeAndIdWithoutTouchingPreviousVersion() {
+        Entries v1 = Entries.of(List.of(
+                entry("FGBL", KeyType.FUTURE_PARENT_TICKER, 1),
+                entry("FGBLH6", KeyType.FUTURE_SYMBOL, 1),
+                entry("FGBLZ5", KeyType.FUTURE_SYMBOL, 3)));
+
+        Entries v2 = v1.merge(List.of(
+                entry("FGBL", KeyType.FUTURE_PARENT_TICKER, 2),
+                entry("FGBLM6", KeyType.FUTURE_SYMBOL, 2)));
+
+        assertEquals(List.of(
+                entry("FGBL", KeyType.FUTURE_PARENT_TICKER, 1),
+                entry("FGBL", KeyType.FUTURE_PARENT_TICKER, 2),
+                entry("FGBLH6", KeyType.FUTURE_SYMBOL, 1),
+                entry("FGBLM6", KeyType.FUTURE_SYMBOL, 2),
+                entry("FGBLZ5", KeyType.FUTURE_SYMBOL, 3)), entries(v2));
+        assertEquals(3, v1.size);
+        assertSame(v1, v1.merge(List.of()));
+    }
+
+    @Test
+    void withoutDropsMatchingRowsAndReturnsSameInstanceWhenNothingMatches() {
+        Entries v1 = Entries.of(List.of(
+                entry("A", KeyType.FUTURE_SYMBOL, 1),
+                entry("B", KeyType.FUTURE_SYMBOL, 2),
+                entry("C", KeyType.UNDERLYING_IDENTIFIER, 2)));
+
+        Entries v2 = v1.without(i -> v1.ids[i] == 2 && v1.types[i] == KeyType.FUTURE_SYMBOL.ordinal());
+
+        assertEquals(List.of(entry("A", KeyType.FUTURE_SYMBOL, 1), entry("C", KeyType.UNDERLYING_IDENTIFIER, 2)),
+                entries(v2));
+        assertSame(v1, v1.without(i -> false));
+    }
+
+    @Test
+    void lowerBoundIsFirstKeyNotBelowPrefix() {
+        Entries e = Entries.of(List.of(
+                entry("FGBL", KeyType.FUTURE_PARENT_TICKER, 1),
+                entry("FGBM", KeyType.FUTURE_PARENT_TICKER, 2),
+                entry("FGBMH6", KeyType.FUTURE_SYMBOL, 2)));
+
+        assertEquals(0, e.lowerBound(""));
+        assertEquals(0, e.lowerBound("FGBL"));
+        assertEquals(1, e.lowerBound("FGBLZ"));
+        assertEquals(1, e.lowerBound("FGBM"));
+        assertEquals(3, e.lowerBound("Z"));
+        assertEquals(0, Entries.EMPTY.lowerBound("A"));
+    }
+
+    @Test
+    void autocompleteStopsAtLimitAndFiltersTypes() {
+        InstrumentLookupIndex index = new InstrumentLookupIndex(null, null, null);
+        index.addFuture(future(1, "FGBLH6", "DE000F1", "FGBL"));
+        index.addFuture(future(2, "FGBLM6", "DE000F2", "FGBL"));
+        index.addFuture(future(3, "FGBMH6", "DE000F3", "FGBM"));
+
+        assertEquals(List.of("FGBL", "FGBL"),
+                index.autocomplete("fgb", null, 2).stream().map(InstrumentSuggestionDTO::getKey).toList());
+        assertEquals(List.of("FGBLH6", "FGBLM6"),
+                index.autocomplete(" fgbl ", Set.of(KeyType.FUTURE_SYMBOL), 10).stream()
+                        .map(InstrumentSuggestionDTO::getKey).toList());
+        assertEquals(List.of(), index.autocomplete("", null, 10));
+        assertEquals(List.of(), index.autocomplete("FGB", null, 0));
+    }
+
+    @Test
+    void addFutureReplacesPreviousKeysAndRemoveDropsThem() {
+        InstrumentLookupIndex index = new InstrumentLookupIndex(null, null, null);
+        index.addFuture(future(1, "FGBLH6", null, "FGBL"));
+        index.addFuture(future(1, "FGBLH6", "DE000F1", "FGBL"));
+
+        assertEquals(3, index.size());
+
+        index.removeFutures(List.of(1L));
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void writesDuringLoadAreReplayedOnLoadedIndex() {
+        InstrumentLookupIndex[] index = new InstrumentLookupIndex[1];
+        // La lecture en base voit le future 1 ; le roll du 2 et la suppression du 1 arrivent pendant la lecture
+        FutureRepository futures = stub(FutureRepository.class, () -> {
+            index[0].addFuture(future(2, "FGBLM6", null, "FGBL"));
+            index[0].removeFutures(List.of(1L));
+            return List.of(row(1, "FGBLH6", "FGBL"));
+        });
+        UnderlyingRepository underlyings = stub(UnderlyingRepository.class, List::of);
+        index[0] = new InstrumentLookupIndex(futures, underlyings, null);
+
+        index[0].load();
+
+        assertEquals(List.of(2L, 2L), index[0].autocomplete("FGBL", null, 10).stream()
+                .map(InstrumentSuggestionDTO::getId).toList());
+    }
+
+    private static FutureLookupRow row(long id, String symbol, String parentTicker) {
+        return new FutureLookupRow() {
+            public Long getId() { return id; }
+            public String getSymbol() { return symbol; }
+            public String getIsin() { return null; }
+            public String getParentTicker() { return parentTicker; }
+        };
+    }
+
+    /**
+     * Dépôt dont la seule requête de chargement (findLiveLookupRows / findLookupRows) renvoie rows.
+     */
+    private static <T> T stub(Class<T> repository, Supplier<List<?>> rows) {
+        return repository.cast(Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findLiveLookupRows", "findLookupRows" -> rows.get();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+}